@@ -22,6 +22,13 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
      */
     public static final String ACCEPT = "Accept";
 
+    /**
+     * The HTTP {@code Allow} header field name.
+     *
+     * @see <a href="https://tools.ietf.org/html/rfc7231#section-7.4.1">Section 7.4.1 of RFC 7231</a>
+     */
+    public static final String ALLOW = "Allow";
+
     /**
      * The HTTP {@code Content-Length} header field name.
      *
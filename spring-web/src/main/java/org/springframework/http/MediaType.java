@@ -21,6 +21,11 @@ public class MediaType extends MimeType implements Serializable {
      */
     public static final MediaType APPLICATION_JSON;
 
+    /**
+     * Public constant media type for {@code application/x-ndjson}.
+     */
+    public static final MediaType APPLICATION_NDJSON;
+
     public static final MediaType APPLICATION_OCTET_STREAM;
 
     public static final MediaType TEXT_EVENT_STREAM;
@@ -30,6 +35,7 @@ public class MediaType extends MimeType implements Serializable {
     static {
         ALL = new MediaType("*", "*");
         APPLICATION_JSON = new MediaType("application", "json");
+        APPLICATION_NDJSON = new MediaType("application", "x-ndjson");
         APPLICATION_OCTET_STREAM = new MediaType("application", "octet-stream");
         TEXT_EVENT_STREAM = new MediaType("text", "event-stream");
     }
@@ -104,6 +110,44 @@ public class MediaType extends MimeType implements Serializable {
         }
     }
 
+    /**
+     * Parse the comma-separated string into a list of {@code MediaType} objects.
+     *
+     * @throws InvalidMediaTypeException if the media type value cannot be parsed
+     */
+    public static List<MediaType> parseMediaTypes(@Nullable String mediaTypes) {
+        if (null == mediaTypes || mediaTypes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = MimeTypeUtils.tokenize(mediaTypes);
+        List<MediaType> result = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            if (!token.trim().isEmpty()) {
+                result.add(parseMediaType(token));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parse the given list of (potentially) comma-separated strings into a
+     * list of {@code MediaType} objects, e.g. the values of an "Accept" header.
+     *
+     * @throws InvalidMediaTypeException if the media type value cannot be parsed
+     */
+    public static List<MediaType> parseMediaTypes(@Nullable List<String> mediaTypes) {
+        if (null == mediaTypes || mediaTypes.isEmpty()) {
+            return Collections.emptyList();
+        } else if (mediaTypes.size() == 1) {
+            return parseMediaTypes(mediaTypes.get(0));
+        }
+        List<MediaType> result = new ArrayList<>(8);
+        for (String mediaType : mediaTypes) {
+            result.addAll(parseMediaTypes(mediaType));
+        }
+        return result;
+    }
+
 
 
 
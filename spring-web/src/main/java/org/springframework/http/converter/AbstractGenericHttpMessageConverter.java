@@ -33,6 +33,7 @@ public abstract class AbstractGenericHttpMessageConverter<T> extends AbstractHtt
 
     @Override
     public void write(T t, Type type, MediaType contentType, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        addDefaultHeaders(outputMessage.getHeaders(), contentType);
         writeInternal(t, type, outputMessage);
         outputMessage.getBody().flush();
     }
@@ -1,6 +1,7 @@
 package org.springframework.http.converter;
 
 import org.apache.commons.logging.Log;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpLogging;
 import org.springframework.http.HttpOutputMessage;
@@ -39,7 +40,7 @@ public abstract class AbstractHttpMessageConverter<T> implements HttpMessageConv
      * Abstract template method that reads the actual object. Invoke from {@link #read(Class, HttpInputMessage)}
      */
     protected abstract T readInternal(Class<? extends T> clazz, HttpInputMessage inputMessage)
-            throws IOException, HttpMessageNotWritableException;
+            throws IOException, HttpMessageNotReadableException;
 
     /**
      * Abstract template method that writes the actual body. Invoke from {@link #write(Object, MediaType, HttpOutputMessage)}
@@ -100,13 +101,24 @@ public abstract class AbstractHttpMessageConverter<T> implements HttpMessageConv
     }
 
     @Override
-    public T read(Class<? extends T> clazz, HttpInputMessage inputMessage) throws IOException, HttpMessageNotWritableException {
+    public T read(Class<? extends T> clazz, HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
         return readInternal(clazz, inputMessage);
     }
 
     @Override
     public void write(T t, MediaType contentType, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        addDefaultHeaders(outputMessage.getHeaders(), contentType);
         writeInternal(t, outputMessage);
         outputMessage.getBody().flush();
     }
+
+    /**
+     * Set the {@code Content-Type} header to the given content type, unless the
+     * header is already present or the content type is not concrete.
+     */
+    protected void addDefaultHeaders(HttpHeaders headers, @Nullable MediaType contentType) {
+        if (null == headers.getContentType() && null != contentType && contentType.isConcrete()) {
+            headers.setContentType(contentType);
+        }
+    }
 }
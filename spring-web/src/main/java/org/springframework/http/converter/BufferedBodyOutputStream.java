@@ -0,0 +1,136 @@
+package org.springframework.http.converter;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@code OutputStream} that collects a message body in buffers from a
+ * {@link ByteArrayPool}, so that it can be written to the message with a
+ * {@code Content-Length} header in a single write on {@link #complete()}.
+ * <p>
+ * If the body grows beyond the buffer limit, the buffered content is written
+ * to the message body and the rest is streamed through, without a
+ * {@code Content-Length}. {@link #close()} does not close the message body.
+ *
+ * @author zhangdd on 2022/7/9
+ */
+public class BufferedBodyOutputStream extends OutputStream {
+
+    private final HttpOutputMessage outputMessage;
+
+    private final ByteArrayPool bufferPool;
+
+    private final int bufferLimit;
+
+    @Nullable
+    private byte[] buffer;
+
+    private int count;
+
+    @Nullable
+    private OutputStream body;
+
+
+    public BufferedBodyOutputStream(HttpOutputMessage outputMessage, ByteArrayPool bufferPool, int bufferLimit) {
+        this.outputMessage = outputMessage;
+        this.bufferPool = bufferPool;
+        this.bufferLimit = bufferLimit;
+    }
+
+
+    @Override
+    public void write(int b) throws IOException {
+        if (null != this.body) {
+            this.body.write(b);
+            return;
+        }
+        ensureCapacity(this.count + 1);
+        if (null != this.body) {
+            this.body.write(b);
+        } else {
+            this.buffer[this.count++] = (byte) b;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (null != this.body) {
+            this.body.write(b, off, len);
+            return;
+        }
+        ensureCapacity(this.count + len);
+        if (null != this.body) {
+            this.body.write(b, off, len);
+        } else {
+            System.arraycopy(b, off, this.buffer, this.count, len);
+            this.count += len;
+        }
+    }
+
+    /**
+     * Write the buffered body to the message, with a {@code Content-Length}
+     * header unless the body has already been streamed, and release the buffer.
+     */
+    public void complete() throws IOException {
+        try {
+            if (null == this.body) {
+                this.outputMessage.getHeaders().setContentLength(this.count);
+                OutputStream target = this.outputMessage.getBody();
+                if (this.count > 0) {
+                    target.write(this.buffer, 0, this.count);
+                }
+                this.body = target;
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Give the buffer back to the pool without writing it, e.g. after a failure.
+     */
+    public void release() {
+        byte[] buffer = this.buffer;
+        if (null != buffer) {
+            this.buffer = null;
+            this.bufferPool.release(buffer);
+        }
+    }
+
+    @Override
+    public void flush() {
+        // Flushed once by the converter after the body has been written
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void ensureCapacity(int capacity) throws IOException {
+        if (null != this.buffer && capacity <= this.buffer.length) {
+            return;
+        }
+        if (capacity > this.bufferLimit) {
+            spill();
+            return;
+        }
+        byte[] newBuffer = this.bufferPool.acquire(Math.max(capacity, null != this.buffer ? this.buffer.length * 2 : 0));
+        if (null != this.buffer) {
+            System.arraycopy(this.buffer, 0, newBuffer, 0, this.count);
+            this.bufferPool.release(this.buffer);
+        }
+        this.buffer = newBuffer;
+    }
+
+    private void spill() throws IOException {
+        OutputStream target = this.outputMessage.getBody();
+        if (this.count > 0) {
+            target.write(this.buffer, 0, this.count);
+        }
+        this.body = target;
+        release();
+    }
+}
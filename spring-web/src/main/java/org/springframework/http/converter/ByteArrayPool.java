@@ -0,0 +1,113 @@
+package org.springframework.http.converter;
+
+import org.springframework.util.Assert;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of {@code byte[]} buffers in power-of-two size classes, used to serialize
+ * or read message bodies without allocating a new buffer per message.
+ * <p>
+ * Buffers are handed out with at least the requested size and should be given
+ * back via {@link #release(byte[])} once their content has been consumed.
+ * Requests above the largest size class are served with a plain array that is
+ * not retained on release.
+ *
+ * @author zhangdd on 2022/7/9
+ */
+public final class ByteArrayPool {
+
+    /**
+     * Shared pool with size classes from 1 KB to 64 KB.
+     */
+    public static final ByteArrayPool SHARED = new ByteArrayPool(1024, 64 * 1024, 64);
+
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    private final int maxPooledPerClass;
+
+    private final Queue<byte[]>[] pools;
+
+    private final AtomicInteger[] pooledCounts;
+
+
+    /**
+     * Create a pool.
+     *
+     * @param minSize           the smallest size class, rounded up to a power of two
+     * @param maxSize           the largest size class, rounded up to a power of two
+     * @param maxPooledPerClass the number of idle buffers to retain per size class
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public ByteArrayPool(int minSize, int maxSize, int maxPooledPerClass) {
+        Assert.isTrue(minSize > 0 && minSize <= maxSize, "Invalid size classes");
+        Assert.isTrue(maxPooledPerClass >= 0, "maxPooledPerClass must not be negative");
+        this.minSize = roundUp(minSize);
+        this.maxSize = roundUp(maxSize);
+        this.maxPooledPerClass = maxPooledPerClass;
+        int classCount = Integer.numberOfTrailingZeros(this.maxSize) - Integer.numberOfTrailingZeros(this.minSize) + 1;
+        this.pools = new Queue[classCount];
+        this.pooledCounts = new AtomicInteger[classCount];
+        for (int i = 0; i < classCount; i++) {
+            this.pools[i] = new ConcurrentLinkedQueue<>();
+            this.pooledCounts[i] = new AtomicInteger();
+        }
+    }
+
+
+    /**
+     * Return the size of the largest size class.
+     */
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Return a buffer of at least the given size, taken from the pool if one is
+     * available.
+     */
+    public byte[] acquire(int size) {
+        if (size > this.maxSize) {
+            return new byte[size];
+        }
+        int index = indexOf(size);
+        byte[] buffer = this.pools[index].poll();
+        if (null != buffer) {
+            this.pooledCounts[index].decrementAndGet();
+            return buffer;
+        }
+        return new byte[this.minSize << index];
+    }
+
+    /**
+     * Give a buffer obtained from {@link #acquire(int)} back to the pool. The
+     * buffer must not be used by the caller afterwards.
+     */
+    public void release(byte[] buffer) {
+        int length = buffer.length;
+        if (length < this.minSize || length > this.maxSize || Integer.bitCount(length) != 1) {
+            return;
+        }
+        int index = indexOf(length);
+        if (this.pooledCounts[index].incrementAndGet() <= this.maxPooledPerClass) {
+            this.pools[index].offer(buffer);
+        } else {
+            this.pooledCounts[index].decrementAndGet();
+        }
+    }
+
+    private int indexOf(int size) {
+        int classSize = Math.max(roundUp(size), this.minSize);
+        return Integer.numberOfTrailingZeros(classSize) - Integer.numberOfTrailingZeros(this.minSize);
+    }
+
+    private static int roundUp(int size) {
+        int highest = Integer.highestOneBit(Math.max(size, 1));
+        return (highest == size ? size : highest << 1);
+    }
+}
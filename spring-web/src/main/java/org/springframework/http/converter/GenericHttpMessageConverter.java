@@ -20,7 +20,7 @@ public interface GenericHttpMessageConverter<T> extends HttpMessageConverter<T>
     boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType);
 
     T read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
-            throws IOException, HttpMessageNotWritableException;
+            throws IOException, HttpMessageNotReadableException;
 
     boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType);
 
@@ -51,7 +51,7 @@ public interface HttpMessageConverter<T> {
      * Read an object of the given type from the given input message, and return it.
      */
     T read(Class<? extends T> clazz, HttpInputMessage inputMessage)
-            throws IOException, HttpMessageNotWritableException;
+            throws IOException, HttpMessageNotReadableException;
 
     /**
      * Write an given object to the given output message.
@@ -0,0 +1,31 @@
+package org.springframework.http.converter;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Thrown by {@link HttpMessageConverter} implementations when the
+ * {@link HttpMessageConverter#read} method fails, and when a required
+ * request body is missing.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public class HttpMessageNotReadableException extends HttpMessageConversionException {
+
+    /**
+     * Create a new HttpMessageNotReadableException.
+     * @param msg the detail message
+     */
+    public HttpMessageNotReadableException(String msg) {
+        super(msg);
+    }
+
+    /**
+     * Create a new HttpMessageNotReadableException.
+     * @param msg the detail message
+     * @param cause the root cause (if any)
+     */
+    public HttpMessageNotReadableException(String msg, @Nullable Throwable cause) {
+        super(msg, cause);
+    }
+
+}
@@ -2,16 +2,22 @@ package org.springframework.http.converter.json;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.PrettyPrinter;
 import com.fasterxml.jackson.core.util.DefaultIndenter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.BufferedBodyOutputStream;
+import org.springframework.http.converter.ByteArrayPool;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -19,6 +25,7 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.util.StreamUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.Reader;
@@ -26,9 +33,16 @@ import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @author zhangdd on 2022/7/9
@@ -45,6 +59,13 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
         ENCODINGS.put("US-ASCII", JsonEncoding.UTF8);
     }
 
+    /**
+     * Upper bound for each of the type, reader, writer and canRead/canWrite caches.
+     * A full cache is cleared rather than left as it is, so that distinct media
+     * types sent by clients cannot switch caching off.
+     */
+    private static final int CACHE_LIMIT = 1024;
+
     protected ObjectMapper defaultObjectMapper;
 
     @Nullable
@@ -53,6 +74,26 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
     @Nullable
     private Map<Class<?>, Map<MediaType, ObjectMapper>> objectMapperRegistrations;
 
+    private boolean bufferedOutput = false;
+
+    private int outputBufferLimit = ByteArrayPool.SHARED.getMaxSize();
+
+    private int inputBufferLimit = ByteArrayPool.SHARED.getMaxSize();
+
+    private int streamFlushThreshold = 256;
+
+    private final Map<CacheKey, JavaType> javaTypeCache = new ConcurrentHashMap<>(64);
+
+    private final Map<CacheKey, ObjectWriter> objectWriterCache = new ConcurrentHashMap<>(64);
+
+    private final Map<CacheKey, ObjectReader> objectReaderCache = new ConcurrentHashMap<>(64);
+
+    private final Map<CacheKey, ObjectWriter> elementWriterCache = new ConcurrentHashMap<>(64);
+
+    private final Map<CacheKey, Boolean> canReadCache = new ConcurrentHashMap<>(64);
+
+    private final Map<CacheKey, Boolean> canWriteCache = new ConcurrentHashMap<>(64);
+
     public AbstractJackson2HttpMessageConverter(ObjectMapper objectMapper) {
         this.defaultObjectMapper = objectMapper;
         DefaultPrettyPrinter prettyPrinter = new DefaultPrettyPrinter();
@@ -66,22 +107,142 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
     }
 
 
+    /**
+     * Whether to serialize into a pooled buffer and write the body at once with a
+     * {@code Content-Length} header, rather than streaming it to the response.
+     * Bodies larger than the {@link #setOutputBufferLimit buffer limit} are
+     * streamed from that point on.
+     * <p>
+     * Default is {@code false}.
+     */
+    public void setBufferedOutput(boolean bufferedOutput) {
+        this.bufferedOutput = bufferedOutput;
+    }
+
+    public boolean isBufferedOutput() {
+        return this.bufferedOutput;
+    }
+
+    /**
+     * Set the largest body size to buffer when {@link #setBufferedOutput buffered
+     * output} is enabled. Default is the largest size class of the shared
+     * {@link ByteArrayPool}, i.e. 64 KB.
+     */
+    public void setOutputBufferLimit(int outputBufferLimit) {
+        Assert.isTrue(outputBufferLimit > 0, "outputBufferLimit must be positive");
+        this.outputBufferLimit = outputBufferLimit;
+    }
+
+    public int getOutputBufferLimit() {
+        return this.outputBufferLimit;
+    }
+
+    /**
+     * Set the largest body size, as given by the {@code Content-Length} header,
+     * to read into a pooled buffer and parse from the byte array, rather than
+     * through the stream. Set to 0 to always parse from the stream. Default is
+     * the largest size class of the shared {@link ByteArrayPool}, i.e. 64 KB.
+     */
+    public void setInputBufferLimit(int inputBufferLimit) {
+        Assert.isTrue(inputBufferLimit >= 0, "inputBufferLimit must not be negative");
+        this.inputBufferLimit = inputBufferLimit;
+    }
+
+    public int getInputBufferLimit() {
+        return this.inputBufferLimit;
+    }
+
+    /**
+     * Set after how many elements to flush the response when writing a
+     * {@link Stream}, {@link Iterator} or lazy {@link Iterable} as a JSON array
+     * element by element. Default is 256.
+     */
+    public void setStreamFlushThreshold(int streamFlushThreshold) {
+        Assert.isTrue(streamFlushThreshold > 0, "streamFlushThreshold must be positive");
+        this.streamFlushThreshold = streamFlushThreshold;
+    }
+
+    public int getStreamFlushThreshold() {
+        return this.streamFlushThreshold;
+    }
+
+    /**
+     * Configure the main {@code ObjectMapper} to use for Object conversion.
+     * Resets all cached types, readers, writers and canRead/canWrite decisions.
+     */
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        Assert.notNull(objectMapper, "ObjectMapper must not be null");
+        this.defaultObjectMapper = objectMapper;
+        clearCaches();
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return this.defaultObjectMapper;
+    }
+
+    /**
+     * Configure the {@link ObjectMapper} instances to use for the given
+     * {@link Class}. This is useful when you want to deviate from the
+     * {@link #getObjectMapper() default} ObjectMapper or have the
+     * {@code ObjectMapper} vary by {@code MediaType}.
+     * <p>
+     * Resets all cached readers, writers and canRead/canWrite decisions.
+     *
+     * @param clazz     the type of Object to register ObjectMapper instances for
+     * @param registrar a consumer to populate or otherwise update the
+     *                  MediaType-to-ObjectMapper associations for the given Class
+     */
+    public void registerObjectMappersForType(Class<?> clazz, Consumer<Map<MediaType, ObjectMapper>> registrar) {
+        if (null == this.objectMapperRegistrations) {
+            this.objectMapperRegistrations = new LinkedHashMap<>();
+        }
+        Map<MediaType, ObjectMapper> registrations =
+                this.objectMapperRegistrations.computeIfAbsent(clazz, c -> new LinkedHashMap<>());
+        registrar.accept(registrations);
+        clearCaches();
+    }
+
     @Nullable
     public Map<Class<?>, Map<MediaType, ObjectMapper>> getObjectMapperRegistrations() {
         return null != this.objectMapperRegistrations ? this.objectMapperRegistrations : Collections.emptyMap();
     }
 
+    private void clearCaches() {
+        this.javaTypeCache.clear();
+        this.objectWriterCache.clear();
+        this.objectReaderCache.clear();
+        this.elementWriterCache.clear();
+        this.canReadCache.clear();
+        this.canWriteCache.clear();
+    }
+
     @Override
     public boolean canRead(Class<?> clazz, MediaType mediaType) {
         return canRead(clazz, null, mediaType);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The decision is cached per type and base media type, since
+     * {@link ObjectMapper#canDeserialize} may have to walk the whole type graph.
+     */
     @Override
     public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
         if (!canRead(mediaType)) {
             return false;
         }
         JavaType javaType = getJavaType(type, contextClass);
+        CacheKey key = new CacheKey(javaType, null, getCacheMediaType(mediaType));
+        Boolean result = this.canReadCache.get(key);
+        if (null == result) {
+            result = evaluateCanRead(javaType, mediaType);
+            putInCache(this.canReadCache, key, result);
+        }
+        return result;
+    }
+
+    private boolean evaluateCanRead(JavaType javaType, @Nullable MediaType mediaType) {
         ObjectMapper objectMapper = selectObjectMapper(javaType.getRawClass(), mediaType);
         if (null == objectMapper) {
             return false;
@@ -94,6 +255,12 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The decision is cached per class and base media type, since
+     * {@link ObjectMapper#canSerialize} may have to walk the whole type graph.
+     */
     @Override
     public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
         if (!canWrite(mediaType)) {
@@ -101,14 +268,28 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
         }
         if (null != mediaType && null != mediaType.getCharset()) {
             Charset charset = mediaType.getCharset();
-            if (ENCODINGS.containsKey(charset.name())) {
+            if (!ENCODINGS.containsKey(charset.name())) {
                 return false;
             }
         }
+        CacheKey key = new CacheKey(clazz, null, getCacheMediaType(mediaType));
+        Boolean result = this.canWriteCache.get(key);
+        if (null == result) {
+            result = evaluateCanWrite(clazz, mediaType);
+            putInCache(this.canWriteCache, key, result);
+        }
+        return result;
+    }
+
+    private boolean evaluateCanWrite(Class<?> clazz, @Nullable MediaType mediaType) {
         ObjectMapper objectMapper = selectObjectMapper(clazz, mediaType);
         if (null == objectMapper) {
             return false;
         }
+        if (isElementSourceType(clazz)) {
+            // Written element by element, see writeStreaming
+            return true;
+        }
         AtomicReference<Throwable> causeRef = new AtomicReference<>();
         if (objectMapper.canSerialize(clazz, causeRef)) {
             return true;
@@ -119,14 +300,14 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 
     @Override
     public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
-            throws IOException, HttpMessageNotWritableException {
+            throws IOException, HttpMessageNotReadableException {
         JavaType javaType = getJavaType(type, contextClass);
         return readJavaType(javaType, inputMessage);
     }
 
     @Override
     protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
-            throws IOException, HttpMessageNotWritableException {
+            throws IOException, HttpMessageNotReadableException {
         JavaType javaType = getJavaType(clazz, null);
         return readJavaType(javaType, inputMessage);
     }
@@ -137,23 +318,214 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
         MediaType contentType = outputMessage.getHeaders().getContentType();
         JsonEncoding encoding = getJsonEncoding(contentType);
 
-        Class<?> clazz = object.getClass();
-        ObjectMapper objectMapper = selectObjectMapper(clazz, contentType);
-        Assert.state(null != objectMapper, "No ObjectMapper for " + clazz.getName());
-        OutputStream outputStream = StreamUtils.nonClosing(outputMessage.getBody());
-        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, encoding)) {
+        if (isStreamingType(object.getClass())) {
+            writeStreaming(object, contentType, encoding, outputMessage);
+            return;
+        }
 
-            ObjectWriter objectWriter = objectMapper.writer();
-            SerializationConfig config = objectWriter.getConfig();
-            if (null != contentType && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM) &&
-                    config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
-                objectWriter = objectWriter.with(this.ssePrettyPrinter);
+        ObjectWriter objectWriter = getObjectWriter(object.getClass(), type, contentType);
+        if (this.bufferedOutput) {
+            BufferedBodyOutputStream outputStream =
+                    new BufferedBodyOutputStream(outputMessage, ByteArrayPool.SHARED, this.outputBufferLimit);
+            try {
+                writeJson(object, objectWriter, encoding, outputStream);
+                outputStream.complete();
+            } finally {
+                outputStream.release();
             }
+        } else {
+            writeJson(object, objectWriter, encoding, StreamUtils.nonClosing(outputMessage.getBody()));
+        }
+    }
+
+    private void writeJson(Object object, ObjectWriter objectWriter, JsonEncoding encoding,
+                           OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectWriter.getFactory().createGenerator(outputStream, encoding)) {
             objectWriter.writeValue(generator, object);
+            generator.flush();
+        }
+    }
+
+    /**
+     * Whether values of the given class are written as a JSON array element by
+     * element: a {@link Stream}, an {@link Iterator}, or an {@link Iterable} that
+     * is not a {@link Collection} and so may be lazy.
+     */
+    protected boolean isStreamingType(Class<?> clazz) {
+        return (isElementSourceType(clazz) && !Collection.class.isAssignableFrom(clazz));
+    }
 
+    private static boolean isElementSourceType(Class<?> clazz) {
+        return (Stream.class.isAssignableFrom(clazz) || Iterator.class.isAssignableFrom(clazz) ||
+                Iterable.class.isAssignableFrom(clazz));
+    }
+
+    /**
+     * Return an iterator over the elements of a value of a
+     * {@link #isStreamingType streaming type}.
+     */
+    protected Iterator<?> getStreamIterator(Object object) {
+        if (object instanceof Stream) {
+            return ((Stream<?>) object).iterator();
+        } else if (object instanceof Iterator) {
+            return (Iterator<?>) object;
+        } else {
+            return ((Iterable<?>) object).iterator();
+        }
+    }
+
+    /**
+     * Write what comes before the first element of a streaming value, by
+     * default the start of a JSON array.
+     */
+    protected void writeStreamStart(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+    }
+
+    /**
+     * Write what comes after each element of a streaming value, by default
+     * nothing since the array separates its elements.
+     */
+    protected void writeStreamElementEnd(JsonGenerator generator) throws IOException {
+    }
+
+    /**
+     * Write what comes after the last element of a streaming value, by default
+     * the end of the JSON array.
+     */
+    protected void writeStreamEnd(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+    }
+
+    /**
+     * Write the elements of a streaming value one at a time and straight to the
+     * response, framed by the {@code writeStream*} methods, flushing every
+     * {@link #setStreamFlushThreshold stream flush threshold} elements, so that
+     * memory use does not grow with the number of elements. A {@link Stream} is
+     * closed afterwards.
+     */
+    private void writeStreaming(Object object, @Nullable MediaType contentType, JsonEncoding encoding,
+                                HttpOutputMessage outputMessage) throws IOException {
+        ObjectMapper objectMapper = selectObjectMapper(object.getClass(), contentType);
+        Assert.state(null != objectMapper, "No ObjectMapper for " + object.getClass().getName());
+        Iterator<?> iterator = getStreamIterator(object);
+        OutputStream outputStream = StreamUtils.nonClosing(outputMessage.getBody());
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, encoding)) {
+            generator.setRootValueSeparator(null);
+            writeStreamStart(generator);
+            Class<?> elementClass = null;
+            ObjectWriter elementWriter = null;
+            int count = 0;
+            while (iterator.hasNext()) {
+                Object element = iterator.next();
+                if (null == element) {
+                    generator.writeNull();
+                } else {
+                    if (element.getClass() != elementClass) {
+                        elementClass = element.getClass();
+                        elementWriter = getElementWriter(elementClass, contentType);
+                    }
+                    elementWriter.writeValue(generator, element);
+                }
+                writeStreamElementEnd(generator);
+                if (++count % this.streamFlushThreshold == 0) {
+                    generator.flush();
+                }
+            }
+            writeStreamEnd(generator);
             generator.flush();
+        } finally {
+            if (object instanceof Stream) {
+                ((Stream<?>) object).close();
+            }
+        }
+    }
+
+    /**
+     * Adapt the writer for the elements of a streaming value. The default
+     * implementation disables flushing after every element.
+     */
+    protected ObjectWriter customizeElementWriter(ObjectWriter objectWriter) {
+        return objectWriter.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Return the writer for stream elements of the given class, which does not
+     * flush after every element.
+     */
+    private ObjectWriter getElementWriter(Class<?> elementClass, @Nullable MediaType contentType) {
+        CacheKey key = new CacheKey(elementClass, null, getCacheMediaType(contentType));
+        ObjectWriter objectWriter = this.elementWriterCache.get(key);
+        if (null == objectWriter) {
+            objectWriter = customizeElementWriter(getObjectWriter(elementClass, null, contentType));
+            putInCache(this.elementWriterCache, key, objectWriter);
+        }
+        return objectWriter;
+    }
+
+    /**
+     * Return the {@link ObjectWriter} for values of the given class and declared
+     * type, written with the given content type. Writers are prepared once per
+     * combination: the root type is set so that its serializer is looked up
+     * only once, and the SSE pretty printer is applied if needed.
+     */
+    private ObjectWriter getObjectWriter(Class<?> clazz, @Nullable Type type, @Nullable MediaType contentType) {
+        CacheKey key = new CacheKey(clazz, type, getCacheMediaType(contentType));
+        ObjectWriter objectWriter = this.objectWriterCache.get(key);
+        if (null != objectWriter) {
+            return objectWriter;
+        }
+        ObjectMapper objectMapper = selectObjectMapper(clazz, contentType);
+        Assert.state(null != objectMapper, "No ObjectMapper for " + clazz.getName());
+
+        JavaType javaType = (null != type ? getJavaType(type, null) : null);
+        objectWriter = (null != javaType && javaType.isContainerType() ?
+                objectMapper.writerFor(javaType) : objectMapper.writerFor(clazz));
+        SerializationConfig config = objectWriter.getConfig();
+        if (null != contentType && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM) &&
+                config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+            objectWriter = objectWriter.with(this.ssePrettyPrinter);
+        }
+        putInCache(this.objectWriterCache, key, objectWriter);
+        return objectWriter;
+    }
+
+    /**
+     * Return the {@link ObjectReader} for the given type and content type,
+     * prepared once per type and base media type.
+     */
+    protected ObjectReader getObjectReader(JavaType javaType, @Nullable MediaType contentType) {
+        CacheKey key = new CacheKey(javaType, null, getCacheMediaType(contentType));
+        ObjectReader objectReader = this.objectReaderCache.get(key);
+        if (null != objectReader) {
+            return objectReader;
         }
+        ObjectMapper objectMapper = selectObjectMapper(javaType.getRawClass(), contentType);
+        Assert.state(null != objectMapper, "No ObjectMapper for " + javaType);
+        objectReader = objectMapper.readerFor(javaType);
+        putInCache(this.objectReaderCache, key, objectReader);
+        return objectReader;
+    }
 
+    private static <V> void putInCache(Map<CacheKey, V> cache, CacheKey key, V value) {
+        if (cache.size() >= CACHE_LIMIT) {
+            cache.clear();
+        }
+        cache.put(key, value);
+    }
+
+    /**
+     * Return the media type to key cached readers, writers and canRead/canWrite
+     * decisions with: the type and subtype only, since the choice of
+     * {@link ObjectMapper} and of the SSE pretty printer does not depend on the
+     * parameters, and the charset is checked before the caches are consulted.
+     */
+    @Nullable
+    private static MediaType getCacheMediaType(@Nullable MediaType mediaType) {
+        if (null == mediaType || mediaType.getParameters().isEmpty()) {
+            return mediaType;
+        }
+        return new MediaType(mediaType.getType(), mediaType.getSubtype());
     }
 
     @Nullable
@@ -178,9 +550,16 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 
     /**
      * Return the Jackson {@link JavaType} for the specified type and context class.
+     * The result is cached, so generic type resolution happens once per type.
      */
     protected JavaType getJavaType(Type type, @Nullable Class<?> contextClass) {
-        return this.defaultObjectMapper.constructType(GenericTypeResolver.resolveType(type, contextClass));
+        CacheKey key = new CacheKey(type, contextClass, null);
+        JavaType javaType = this.javaTypeCache.get(key);
+        if (null == javaType) {
+            javaType = this.defaultObjectMapper.constructType(GenericTypeResolver.resolveType(type, contextClass));
+            putInCache(this.javaTypeCache, key, javaType);
+        }
+        return javaType;
     }
 
     protected JsonEncoding getJsonEncoding(@Nullable MediaType contentType) {
@@ -218,17 +597,49 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
     private Object readJavaType(JavaType javaType, HttpInputMessage inputMessage) throws IOException {
         MediaType contentType = inputMessage.getHeaders().getContentType();
         Charset charset = getCharset(contentType);
-        ObjectMapper objectMapper = selectObjectMapper(javaType.getRawClass(), contentType);
-        Assert.state(null != objectMapper, "No ObjectMapper for " + javaType);
+        ObjectReader objectReader = getObjectReader(javaType, contentType);
         boolean isUnicode = ENCODINGS.containsKey(charset.name()) ||
                 "UTF-16".equals(charset.name()) ||
                 "UTF-32".equals(charset.name());
 
-        if (isUnicode) {
-            return objectMapper.readValue(inputMessage.getBody(), javaType);
-        } else {
-            Reader reader = new InputStreamReader(inputMessage.getBody(), charset);
-            return objectMapper.readValue(reader, javaType);
+        try {
+            if (isUnicode) {
+                long contentLength = inputMessage.getHeaders().getContentLength();
+                if (contentLength > 0 && contentLength <= this.inputBufferLimit) {
+                    return readFromBuffer(objectReader, inputMessage, (int) contentLength);
+                }
+                return objectReader.readValue(inputMessage.getBody());
+            } else {
+                Reader reader = new InputStreamReader(inputMessage.getBody(), charset);
+                return objectReader.readValue(reader);
+            }
+        } catch (InvalidDefinitionException ex) {
+            throw new HttpMessageConversionException("Type definition error: " + ex.getType(), ex);
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + ex.getOriginalMessage(), ex);
+        }
+    }
+
+    /**
+     * Read a body of known length into a pooled buffer and parse it from the
+     * byte array, where Jackson detects the Unicode encoding by itself.
+     */
+    private Object readFromBuffer(ObjectReader objectReader, HttpInputMessage inputMessage,
+                                  int contentLength) throws IOException {
+        byte[] buffer = ByteArrayPool.SHARED.acquire(contentLength);
+        try {
+            InputStream body = inputMessage.getBody();
+            int count = 0;
+            while (count < contentLength) {
+                int read = body.read(buffer, count, contentLength - count);
+                if (read == -1) {
+                    break;
+                }
+                count += read;
+            }
+            return objectReader.readValue(buffer, 0, count);
+        } finally {
+            ByteArrayPool.SHARED.release(buffer);
         }
     }
 
@@ -239,4 +650,48 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
             return StandardCharsets.UTF_8;
         }
     }
+
+
+    /**
+     * Cache key for a type, an optional second type or context class, and an
+     * optional media type.
+     */
+    private static final class CacheKey {
+
+        private final Object type;
+
+        @Nullable
+        private final Object context;
+
+        @Nullable
+        private final MediaType mediaType;
+
+        private final int hashCode;
+
+        CacheKey(Object type, @Nullable Object context, @Nullable MediaType mediaType) {
+            this.type = type;
+            this.context = context;
+            this.mediaType = mediaType;
+            this.hashCode = Objects.hash(type, context, mediaType);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey otherKey = (CacheKey) other;
+            return (this.type.equals(otherKey.type) &&
+                    Objects.equals(this.context, otherKey.context) &&
+                    Objects.equals(this.mediaType, otherKey.mediaType));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
 }
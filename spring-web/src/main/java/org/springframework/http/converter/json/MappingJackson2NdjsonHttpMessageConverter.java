@@ -0,0 +1,205 @@
+package org.springframework.http.converter.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import org.springframework.core.CollectionFactory;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementation of {@link org.springframework.http.converter.HttpMessageConverter}
+ * for newline delimited JSON, also known as JSON Lines, with the
+ * {@code application/x-ndjson} media type.
+ * <p>
+ * Every value is written as one line: the elements of a {@link Stream},
+ * {@link Iterator}, {@link Iterable} or array one by one, flushed every
+ * {@link #setStreamFlushThreshold stream flush threshold} lines, and any other
+ * value as a single line.
+ * <p>
+ * When reading into a {@link Stream} or {@link Iterator}, lines are parsed
+ * lazily as the handler consumes them, so the request body is never held in
+ * memory as a whole, and a line that cannot be parsed is raised as
+ * {@link HttpMessageNotReadableException} while the handler consumes it. A
+ * {@link Collection} target is read fully.
+ *
+ * @author zhangdd on 2022/7/9
+ */
+public class MappingJackson2NdjsonHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public MappingJackson2NdjsonHttpMessageConverter() {
+        this(Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    public MappingJackson2NdjsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper, MediaType.APPLICATION_NDJSON);
+    }
+
+
+    /**
+     * Every value is streamed, one line per element, or a single line for
+     * values that are neither a container nor an array.
+     */
+    @Override
+    protected boolean isStreamingType(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    protected Iterator<?> getStreamIterator(Object object) {
+        if (object instanceof Stream || object instanceof Iterator || object instanceof Iterable) {
+            return super.getStreamIterator(object);
+        } else if (object.getClass().isArray()) {
+            return Arrays.asList(ObjectUtils.toObjectArray(object)).iterator();
+        } else {
+            return Collections.singletonList(object).iterator();
+        }
+    }
+
+    @Override
+    protected void writeStreamStart(JsonGenerator generator) {
+    }
+
+    @Override
+    protected void writeStreamElementEnd(JsonGenerator generator) throws IOException {
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    protected void writeStreamEnd(JsonGenerator generator) {
+    }
+
+    /**
+     * Lines must not be broken up by indentation.
+     */
+    @Override
+    protected ObjectWriter customizeElementWriter(ObjectWriter objectWriter) {
+        return super.customizeElementWriter(objectWriter).without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        JavaType javaType = getJavaType(type, contextClass);
+        if (isLineSourceType(javaType)) {
+            return super.canRead(javaType.containedTypeOrUnknown(0), null, mediaType);
+        }
+        return super.canRead(type, contextClass, mediaType);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        JavaType javaType = getJavaType(type, contextClass);
+        if (!isLineSourceType(javaType)) {
+            return super.read(type, contextClass, inputMessage);
+        }
+        JavaType elementType = javaType.containedTypeOrUnknown(0);
+        MediaType contentType = inputMessage.getHeaders().getContentType();
+        Class<?> rawClass = javaType.getRawClass();
+        try {
+            MappingIterator<Object> iterator =
+                    getObjectReader(elementType, contentType).readValues(inputMessage.getBody());
+            if (Stream.class.isAssignableFrom(rawClass)) {
+                LineIterator lines = new LineIterator(iterator);
+                return StreamSupport.stream(Spliterators.spliteratorUnknownSize(lines, Spliterator.ORDERED), false)
+                        .onClose(lines::closeQuietly);
+            } else if (Iterator.class.isAssignableFrom(rawClass)) {
+                return new LineIterator(iterator);
+            } else {
+                Collection<Object> collection =
+                        CollectionFactory.createCollection(rawClass, elementType.getRawClass(), 16);
+                return iterator.readAll(collection);
+            }
+        } catch (InvalidDefinitionException ex) {
+            throw new HttpMessageConversionException("Type definition error: " + ex.getType(), ex);
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + ex.getOriginalMessage(), ex);
+        }
+    }
+
+    private static boolean isLineSourceType(JavaType javaType) {
+        Class<?> rawClass = javaType.getRawClass();
+        return (rawClass == Stream.class || rawClass == Iterator.class || javaType.isCollectionLikeType());
+    }
+
+
+    /**
+     * Iterator over the lines of a request body read lazily by the handler. It
+     * raises a line that cannot be parsed as {@link HttpMessageNotReadableException},
+     * as reading the whole body does, rather than as Jackson's unchecked exception,
+     * and it is {@link Closeable} so that the body can be released after the
+     * handler has been invoked.
+     */
+    private static final class LineIterator implements Iterator<Object>, Closeable {
+
+        private final MappingIterator<Object> iterator;
+
+        LineIterator(MappingIterator<Object> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return this.iterator.hasNext();
+            } catch (RuntimeException ex) {
+                throw translateException(ex);
+            }
+        }
+
+        @Override
+        public Object next() {
+            try {
+                return this.iterator.next();
+            } catch (RuntimeException ex) {
+                throw translateException(ex);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.iterator.close();
+        }
+
+        void closeQuietly() {
+            try {
+                close();
+            } catch (IOException ex) {
+                // ignore
+            }
+        }
+
+        private static RuntimeException translateException(RuntimeException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof InvalidDefinitionException) {
+                return new HttpMessageConversionException(
+                        "Type definition error: " + ((InvalidDefinitionException) cause).getType(), cause);
+            } else if (cause instanceof JsonProcessingException) {
+                return new HttpMessageNotReadableException(
+                        "JSON parse error: " + ((JsonProcessingException) cause).getOriginalMessage(), cause);
+            }
+            return ex;
+        }
+    }
+}
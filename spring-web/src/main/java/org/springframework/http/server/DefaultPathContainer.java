@@ -0,0 +1,137 @@
+package org.springframework.http.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Default implementation of {@link PathContainer}.
+ *
+ * @author zhangdd on 2022/7/16
+ */
+final class DefaultPathContainer implements PathContainer {
+
+    private static final PathContainer EMPTY_PATH = new DefaultPathContainer("", Collections.emptyList());
+
+    private static final Separator SEPARATOR = () -> "/";
+
+
+    private final String path;
+
+    private final List<Element> elements;
+
+
+    private DefaultPathContainer(String path, List<Element> elements) {
+        this.path = path;
+        this.elements = Collections.unmodifiableList(elements);
+    }
+
+
+    @Override
+    public String value() {
+        return this.path;
+    }
+
+    @Override
+    public List<Element> elements() {
+        return this.elements;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PathContainer)) {
+            return false;
+        }
+        return value().equals(((PathContainer) other).value());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value();
+    }
+
+
+    static PathContainer createFromUrlPath(String path) {
+        if (path.isEmpty()) {
+            return EMPTY_PATH;
+        }
+        List<Element> elements = new ArrayList<>();
+        int begin;
+        if (path.charAt(0) == '/') {
+            begin = 1;
+            elements.add(SEPARATOR);
+        } else {
+            begin = 0;
+        }
+        while (begin < path.length()) {
+            int end = path.indexOf('/', begin);
+            String segment = (end != -1 ? path.substring(begin, end) : path.substring(begin));
+            if (!segment.isEmpty()) {
+                elements.add(new DefaultPathSegment(segment));
+            }
+            if (end == -1) {
+                break;
+            }
+            elements.add(SEPARATOR);
+            begin = end + 1;
+        }
+        return new DefaultPathContainer(path, elements);
+    }
+
+
+    private static final class DefaultPathSegment implements PathSegment {
+
+        private final String value;
+
+        private final char[] valueAsChars;
+
+        DefaultPathSegment(String value) {
+            this.value = value;
+            this.valueAsChars = value.toCharArray();
+        }
+
+        @Override
+        public String value() {
+            return this.value;
+        }
+
+        @Override
+        public String valueToMatch() {
+            return this.value;
+        }
+
+        @Override
+        public char[] valueToMatchAsChars() {
+            return this.valueAsChars;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof PathSegment)) {
+                return false;
+            }
+            return this.value.equals(((PathSegment) other).value());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "[value='" + this.value + "']";
+        }
+    }
+}
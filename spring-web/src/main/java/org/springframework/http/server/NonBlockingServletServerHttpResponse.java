@@ -0,0 +1,298 @@
+package org.springframework.http.server;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.converter.ByteArrayPool;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ServletServerHttpResponse} that collects the body in pooled buffers
+ * and, once it is complete, writes it without blocking the request thread: the
+ * request is put into async mode and the buffers are written through a
+ * Servlet 3.1 {@link WriteListener} whenever the output stream is ready, so a
+ * slow client does not hold a container thread while the body drains.
+ * <p>
+ * Bodies up to the direct write limit are written right away instead, since
+ * they fit into the response buffer of the container. A body that grows beyond
+ * the buffer limit is streamed to the servlet output stream as usual from that
+ * point on, so memory use per response stays bounded.
+ * <p>
+ * Draining is limited by the {@link #setDrainTimeout drain timeout} rather than
+ * the default async timeout of the container. A client that does not take the
+ * body within it has its response aborted, which is logged as a warning.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public class NonBlockingServletServerHttpResponse extends ServletServerHttpResponse {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private static final Log logger = LogFactory.getLog(NonBlockingServletServerHttpResponse.class);
+
+
+    private final HttpServletRequest servletRequest;
+
+    private final ByteArrayPool bufferPool;
+
+    private final int directWriteLimit;
+
+    private final int bufferLimit;
+
+    private long drainTimeout;
+
+    private final List<byte[]> chunks = new ArrayList<>(4);
+
+    /**
+     * Number of bytes used in the last chunk.
+     */
+    private int lastChunkCount;
+
+    private int size;
+
+    @Nullable
+    private OutputStream spilledBody;
+
+    private final OutputStream body = new BodyBufferStream();
+
+
+    /**
+     * Create a response.
+     *
+     * @param directWriteLimit the body size up to which the body is written
+     *                         directly rather than through a {@code WriteListener}
+     * @param bufferLimit      the body size up to which the body is buffered
+     */
+    public NonBlockingServletServerHttpResponse(HttpServletRequest servletRequest, HttpServletResponse servletResponse,
+                                                ByteArrayPool bufferPool, int directWriteLimit, int bufferLimit) {
+        super(servletResponse);
+        Assert.notNull(servletRequest, "HttpServletRequest must not be null");
+        this.servletRequest = servletRequest;
+        this.bufferPool = bufferPool;
+        this.directWriteLimit = directWriteLimit;
+        this.bufferLimit = bufferLimit;
+    }
+
+
+    /**
+     * Set the time in milliseconds a client may take to drain the body once it
+     * is written through a {@code WriteListener}, or 0 for no limit, leaving it
+     * to the write timeout of the connector.
+     * <p>By default there is no limit.
+     */
+    public void setDrainTimeout(long drainTimeout) {
+        this.drainTimeout = drainTimeout;
+    }
+
+    @Override
+    public OutputStream getBody() {
+        return this.body;
+    }
+
+    /**
+     * Write the buffered body with a {@code Content-Length}, unless it has
+     * been streamed already.
+     *
+     * @return {@code true} if async processing was started to write the body,
+     * in which case the response must be left alone
+     */
+    public boolean writeBufferedBody() throws IOException {
+        if (null != this.spilledBody) {
+            return false;
+        }
+        if (getHeaders().getContentLength() == -1) {
+            getHeaders().setContentLength(this.size);
+        }
+        if (this.size <= this.directWriteLimit || !this.servletRequest.isAsyncSupported() ||
+                this.servletRequest.isAsyncStarted()) {
+            try {
+                writeChunks(super.getBody());
+            } finally {
+                release();
+            }
+            return false;
+        }
+        ServletOutputStream outputStream = (ServletOutputStream) super.getBody();
+        AsyncContext asyncContext = this.servletRequest.startAsync(this.servletRequest, getServletResponse());
+        asyncContext.setTimeout(this.drainTimeout);
+        BodyWriteListener listener = new BodyWriteListener(asyncContext, outputStream);
+        asyncContext.addListener(listener);
+        outputStream.setWriteListener(listener);
+        return true;
+    }
+
+    /**
+     * Give the buffers back to the pool without writing them, e.g. after a failure.
+     */
+    public synchronized void release() {
+        for (byte[] chunk : this.chunks) {
+            if (null != chunk) {
+                this.bufferPool.release(chunk);
+            }
+        }
+        this.chunks.clear();
+        this.lastChunkCount = 0;
+    }
+
+    private int chunkCount(int index) {
+        return (index == this.chunks.size() - 1 ? this.lastChunkCount : this.chunks.get(index).length);
+    }
+
+    private void writeChunks(OutputStream outputStream) throws IOException {
+        for (int i = 0; i < this.chunks.size(); i++) {
+            outputStream.write(this.chunks.get(i), 0, chunkCount(i));
+        }
+    }
+
+    /**
+     * Stream the buffered body and everything after it to the servlet output
+     * stream, once the body exceeds the buffer limit.
+     */
+    private void spill() throws IOException {
+        OutputStream target = super.getBody();
+        try {
+            writeChunks(target);
+        } finally {
+            release();
+        }
+        this.spilledBody = target;
+    }
+
+
+    private class BodyBufferStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (null == spilledBody && size + len > bufferLimit) {
+                spill();
+            }
+            if (null != spilledBody) {
+                spilledBody.write(b, off, len);
+                return;
+            }
+            while (len > 0) {
+                if (chunks.isEmpty() || lastChunkCount == chunks.get(chunks.size() - 1).length) {
+                    chunks.add(bufferPool.acquire(CHUNK_SIZE));
+                    lastChunkCount = 0;
+                }
+                byte[] chunk = chunks.get(chunks.size() - 1);
+                int count = Math.min(len, chunk.length - lastChunkCount);
+                System.arraycopy(b, off, chunk, lastChunkCount, count);
+                lastChunkCount += count;
+                size += count;
+                off += count;
+                len -= count;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (null != spilledBody) {
+                spilledBody.flush();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+
+    /**
+     * Writes one chunk per ready output stream. A chunk is given back to the
+     * pool only once the stream is ready again, since the container may hold
+     * on to the written array until then.
+     */
+    private class BodyWriteListener implements WriteListener, AsyncListener {
+
+        private final AsyncContext asyncContext;
+
+        private final ServletOutputStream outputStream;
+
+        private int index;
+
+        private boolean completed;
+
+        BodyWriteListener(AsyncContext asyncContext, ServletOutputStream outputStream) {
+            this.asyncContext = asyncContext;
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            synchronized (NonBlockingServletServerHttpResponse.this) {
+                while (!this.completed && this.outputStream.isReady()) {
+                    if (this.index > 0) {
+                        // The previous write has completed
+                        byte[] written = chunks.set(this.index - 1, null);
+                        if (null != written) {
+                            bufferPool.release(written);
+                        }
+                    }
+                    if (this.index == chunks.size()) {
+                        complete();
+                        return;
+                    }
+                    this.outputStream.write(chunks.get(this.index), 0, chunkCount(this.index));
+                    this.index++;
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable ex) {
+            complete();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Aborting response to " + servletRequest.getRequestURI() + ": the client did not drain " +
+                        "the body of " + size + " bytes within " + drainTimeout + " ms");
+            }
+            complete();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            complete();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void complete() {
+            synchronized (NonBlockingServletServerHttpResponse.this) {
+                if (this.completed) {
+                    return;
+                }
+                this.completed = true;
+                release();
+            }
+            this.asyncContext.complete();
+        }
+    }
+}
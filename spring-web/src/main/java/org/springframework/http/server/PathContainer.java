@@ -0,0 +1,70 @@
+package org.springframework.http.server;
+
+import java.util.List;
+
+/**
+ * Structured representation of a URI path parsed into a sequence of
+ * {@link Separator} and {@link PathSegment} elements.
+ * <p>
+ * An instance can be parsed once per request and then matched against any
+ * number of {@code PathPattern}s without splitting the path again.
+ *
+ * @author zhangdd on 2022/7/16
+ */
+public interface PathContainer {
+
+    /**
+     * The original path from which this instance was parsed.
+     */
+    String value();
+
+    /**
+     * The contained path elements, either {@link Separator} or {@link PathSegment}.
+     */
+    List<Element> elements();
+
+
+    /**
+     * Parse the path value into a sequence of {@code "/"} {@link Separator Separator}
+     * and {@link PathSegment PathSegment} elements. The path is expected to be
+     * decoded already, e.g. the lookup path from {@code UrlPathHelper}.
+     */
+    static PathContainer parsePath(String path) {
+        return DefaultPathContainer.createFromUrlPath(path);
+    }
+
+
+    /**
+     * A path element, either separator or path segment.
+     */
+    interface Element {
+
+        /**
+         * Return the original value of the path element.
+         */
+        String value();
+    }
+
+    /**
+     * Path separator element.
+     */
+    interface Separator extends Element {
+    }
+
+    /**
+     * Path segment element.
+     */
+    interface PathSegment extends Element {
+
+        /**
+         * Return the value of the segment to use for matching.
+         */
+        String valueToMatch();
+
+        /**
+         * The same as {@link #valueToMatch()} but as a {@code char[]}, computed
+         * once at parse time so that matching does not need to copy it.
+         */
+        char[] valueToMatchAsChars();
+    }
+}
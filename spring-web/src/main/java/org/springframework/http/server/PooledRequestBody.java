@@ -0,0 +1,266 @@
+package org.springframework.http.server;
+
+import org.springframework.http.converter.ByteArrayPool;
+import org.springframework.lang.Nullable;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request body read ahead of handler invocation without blocking: the request
+ * is put into async mode, the body is read through a Servlet 3.1
+ * {@link ReadListener} into buffers from a {@link ByteArrayPool} as the client
+ * sends it, and the request is dispatched again once all data has been read.
+ * A slow uploader therefore does not hold a container thread, and the handler
+ * reads the body from memory.
+ * <p>
+ * The body is kept in a request attribute, where {@link ServletServerHttpRequest}
+ * picks it up, and its buffers are given back to the pool when the request
+ * completes.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public final class PooledRequestBody {
+
+    /**
+     * Name of the request attribute holding the body.
+     */
+    public static final String BODY_ATTRIBUTE = PooledRequestBody.class.getName() + ".BODY";
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+
+    private final ByteArrayPool bufferPool;
+
+    private final List<byte[]> chunks = new ArrayList<>(2);
+
+    /**
+     * Number of bytes used in the last chunk.
+     */
+    private int lastChunkCount;
+
+    private int size;
+
+    private boolean released;
+
+
+    private PooledRequestBody(ByteArrayPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+
+    /**
+     * Start reading the body of the given request, unless it has none, is
+     * larger than the given maximum or the request cannot be processed async.
+     *
+     * @return {@code true} if reading was started, in which case the request
+     * is dispatched again once the body is complete and must be left alone
+     * until then
+     */
+    public static boolean startReading(HttpServletRequest request, HttpServletResponse response,
+                                       ByteArrayPool bufferPool, int maxSize) throws IOException {
+        if (null != request.getAttribute(BODY_ATTRIBUTE) || !request.isAsyncSupported() || request.isAsyncStarted()) {
+            return false;
+        }
+        long contentLength = request.getContentLengthLong();
+        if (contentLength == 0 || contentLength > maxSize ||
+                (contentLength == -1 && null == request.getHeader("Transfer-Encoding"))) {
+            return false;
+        }
+        PooledRequestBody body = new PooledRequestBody(bufferPool);
+        request.setAttribute(BODY_ATTRIBUTE, body);
+        AsyncContext asyncContext = request.startAsync(request, response);
+        ServletInputStream inputStream = request.getInputStream();
+        BodyReadListener listener = body.new BodyReadListener(asyncContext, inputStream, maxSize);
+        asyncContext.addListener(listener);
+        inputStream.setReadListener(listener);
+        return true;
+    }
+
+    /**
+     * Return the body read for the given request, if any.
+     */
+    @Nullable
+    public static PooledRequestBody getBody(HttpServletRequest request) {
+        Object body = request.getAttribute(BODY_ATTRIBUTE);
+        return (body instanceof PooledRequestBody ? (PooledRequestBody) body : null);
+    }
+
+
+    /**
+     * Return the size of the body in bytes.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Return a stream over the body, which may be obtained more than once.
+     */
+    public InputStream getInputStream() {
+        return new BodyInputStream();
+    }
+
+    /**
+     * Give the buffers back to the pool. The body must not be read afterwards.
+     */
+    public synchronized void release() {
+        if (this.released) {
+            return;
+        }
+        this.released = true;
+        for (byte[] chunk : this.chunks) {
+            this.bufferPool.release(chunk);
+        }
+        this.chunks.clear();
+    }
+
+    private int chunkCount(int index) {
+        return (index == this.chunks.size() - 1 ? this.lastChunkCount : this.chunks.get(index).length);
+    }
+
+
+    private class BodyInputStream extends InputStream {
+
+        private int chunkIndex;
+
+        private int position;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return (read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (released) {
+                throw new IOException("Request body has been released");
+            }
+            if (len == 0) {
+                return 0;
+            }
+            while (this.chunkIndex < chunks.size() && this.position == chunkCount(this.chunkIndex)) {
+                this.chunkIndex++;
+                this.position = 0;
+            }
+            if (this.chunkIndex == chunks.size()) {
+                return -1;
+            }
+            int count = Math.min(len, chunkCount(this.chunkIndex) - this.position);
+            System.arraycopy(chunks.get(this.chunkIndex), this.position, b, off, count);
+            this.position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return (this.chunkIndex < chunks.size() ? chunkCount(this.chunkIndex) - this.position : 0);
+        }
+    }
+
+
+    /**
+     * Reads into the pooled buffers as data arrives, dispatches the request
+     * once all has been read, and releases the buffers when the request
+     * completes, staying registered across further async cycles.
+     */
+    private class BodyReadListener implements ReadListener, AsyncListener {
+
+        private final AsyncContext asyncContext;
+
+        private final ServletInputStream inputStream;
+
+        private final int maxSize;
+
+        private volatile boolean reading = true;
+
+        BodyReadListener(AsyncContext asyncContext, ServletInputStream inputStream, int maxSize) {
+            this.asyncContext = asyncContext;
+            this.inputStream = inputStream;
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            synchronized (PooledRequestBody.this) {
+                while (!released && this.inputStream.isReady() && !this.inputStream.isFinished()) {
+                    if (chunks.isEmpty() || lastChunkCount == chunks.get(chunks.size() - 1).length) {
+                        chunks.add(bufferPool.acquire(CHUNK_SIZE));
+                        lastChunkCount = 0;
+                    }
+                    byte[] chunk = chunks.get(chunks.size() - 1);
+                    int count = this.inputStream.read(chunk, lastChunkCount, chunk.length - lastChunkCount);
+                    if (count == -1) {
+                        return;
+                    }
+                    lastChunkCount += count;
+                    size += count;
+                    if (size > this.maxSize) {
+                        fail(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onAllDataRead() {
+            this.reading = false;
+            this.asyncContext.dispatch();
+        }
+
+        @Override
+        public void onError(Throwable ex) {
+            fail(HttpServletResponse.SC_BAD_REQUEST);
+        }
+
+        private void fail(int status) {
+            this.reading = false;
+            release();
+            HttpServletResponse response = (HttpServletResponse) this.asyncContext.getResponse();
+            try {
+                if (!response.isCommitted()) {
+                    response.sendError(status);
+                }
+            } catch (IOException ex) {
+                // The client has gone away
+            } finally {
+                this.asyncContext.complete();
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Stay registered until the request completes
+            event.getAsyncContext().addListener(this);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // Timeouts of later async cycles are handled by whoever started them
+            if (this.reading) {
+                fail(HttpServletResponse.SC_REQUEST_TIMEOUT);
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+    }
+}
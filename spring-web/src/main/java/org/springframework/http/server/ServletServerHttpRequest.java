@@ -85,8 +85,13 @@ public class ServletServerHttpRequest implements ServerHttpRequest {
     }
 
 
+    /**
+     * Return the body read ahead into a {@link PooledRequestBody}, if any, or
+     * the input stream of the servlet request otherwise.
+     */
     @Override
     public InputStream getBody() throws IOException {
-        return null;
+        PooledRequestBody body = PooledRequestBody.getBody(this.servletRequest);
+        return (null != body ? body.getInputStream() : this.servletRequest.getInputStream());
     }
 }
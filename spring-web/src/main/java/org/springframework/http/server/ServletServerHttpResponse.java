@@ -1,6 +1,7 @@
 package org.springframework.http.server;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
@@ -12,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author zhangdd on 2022/7/3
@@ -44,9 +46,40 @@ public class ServletServerHttpResponse implements ServerHttpResponse {
 
     @Override
     public OutputStream getBody() throws IOException {
+        writeHeaders();
         return this.servletResponse.getOutputStream();
     }
 
+    /**
+     * Copy the headers added through {@link #getHeaders()} to the servlet response,
+     * once, before the body is written.
+     */
+    private void writeHeaders() {
+        if (this.headersWritten) {
+            return;
+        }
+        for (Map.Entry<String, List<String>> entry : this.headers.entrySet()) {
+            String headerName = entry.getKey();
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(headerName) ||
+                    HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(headerName)) {
+                continue;
+            }
+            for (String headerValue : entry.getValue()) {
+                this.servletResponse.addHeader(headerName, headerValue);
+            }
+        }
+        // HttpServletResponse exposes these as properties
+        MediaType contentType = this.headers.getContentType();
+        if (null == this.servletResponse.getContentType() && null != contentType) {
+            this.servletResponse.setContentType(contentType.toString());
+        }
+        long contentLength = this.headers.getContentLength();
+        if (contentLength != -1) {
+            this.servletResponse.setContentLengthLong(contentLength);
+        }
+        this.headersWritten = true;
+    }
+
     /**
      * Extends HttpHeaders with the ability to look up headers already present in
      * the underlying HttpServletResponse.
@@ -31,4 +31,11 @@ public abstract class HttpMediaTypeException extends ServletException {
         super(message);
         this.supportedMediaTypes = Collections.unmodifiableList(supportedMediaTypes);
     }
+
+    /**
+     * Return the list of supported media types.
+     */
+    public List<MediaType> getSupportedMediaTypes() {
+        return this.supportedMediaTypes;
+    }
 }
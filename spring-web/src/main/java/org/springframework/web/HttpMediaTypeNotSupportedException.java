@@ -0,0 +1,33 @@
+package org.springframework.web;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Exception thrown when a client POSTs or PUTs content of a type not
+ * supported by request handler.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public class HttpMediaTypeNotSupportedException extends HttpMediaTypeException {
+
+    /**
+     * Create a new HttpMediaTypeNotSupportedException.
+     *
+     * @param message the exception message
+     */
+    public HttpMediaTypeNotSupportedException(String message) {
+        super(message);
+    }
+
+    /**
+     * Create a new HttpMediaTypeNotSupportedException.
+     *
+     * @param contentType         the unsupported content type
+     * @param supportedMediaTypes the list of supported media types
+     */
+    public HttpMediaTypeNotSupportedException(MediaType contentType, List<MediaType> supportedMediaTypes) {
+        super("Content type '" + contentType + "' not supported", supportedMediaTypes);
+    }
+}
@@ -0,0 +1,47 @@
+package org.springframework.web;
+
+import org.springframework.lang.Nullable;
+
+import javax.servlet.ServletException;
+import java.util.Collection;
+
+/**
+ * Exception thrown when a request handler does not support a specific
+ * request method, while handlers for the same path support others.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public class HttpRequestMethodNotSupportedException extends ServletException {
+
+    private final String method;
+
+    @Nullable
+    private final String[] supportedMethods;
+
+    /**
+     * Create a new HttpRequestMethodNotSupportedException.
+     *
+     * @param method           the unsupported HTTP request method
+     * @param supportedMethods the actually supported HTTP methods (may be {@code null})
+     */
+    public HttpRequestMethodNotSupportedException(String method, @Nullable Collection<String> supportedMethods) {
+        super("Request method '" + method + "' not supported");
+        this.method = method;
+        this.supportedMethods = (null != supportedMethods ? supportedMethods.toArray(new String[0]) : null);
+    }
+
+    /**
+     * Return the HTTP request method that caused the failure.
+     */
+    public String getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Return the actually supported HTTP methods, or {@code null} if not known.
+     */
+    @Nullable
+    public String[] getSupportedMethods() {
+        return this.supportedMethods;
+    }
+}
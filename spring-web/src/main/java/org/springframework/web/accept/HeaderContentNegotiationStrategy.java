@@ -1,9 +1,13 @@
 package org.springframework.web.accept;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.util.CollectionUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.context.request.NativeWebRequest;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -14,14 +18,27 @@ import java.util.List;
 public class HeaderContentNegotiationStrategy implements ContentNegotiationStrategy {
 
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws HttpMediaTypeNotAcceptableException if the 'Accept' header cannot be parsed
+     */
     @Override
     public List<MediaType> resolveMediaTypes(NativeWebRequest request)
             throws HttpMediaTypeNotAcceptableException {
-//        String[] headerValueArray = request.getHeaderValues(HttpHeaders.ACCEPT);
-//        if (null==headerValueArray){
-//            return MEDIA_TYPE_ALL_LIST;
-//        }
+        String[] headerValueArray = request.getHeaderValues(HttpHeaders.ACCEPT);
+        if (null == headerValueArray) {
+            return MEDIA_TYPE_ALL_LIST;
+        }
 
-        return MEDIA_TYPE_ALL_LIST;
+        List<String> headerValues = Arrays.asList(headerValueArray);
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValues);
+            MediaType.sortBySpecificityAndQuality(mediaTypes);
+            return !CollectionUtils.isEmpty(mediaTypes) ? mediaTypes : MEDIA_TYPE_ALL_LIST;
+        } catch (InvalidMediaTypeException ex) {
+            throw new HttpMediaTypeNotAcceptableException(
+                    "Could not parse 'Accept' header " + headerValues + ": " + ex.getMessage());
+        }
     }
 }
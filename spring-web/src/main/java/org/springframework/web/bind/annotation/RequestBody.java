@@ -0,0 +1,24 @@
+package org.springframework.web.bind.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation indicating a method parameter should be bound to the body of the
+ * web request. The body is passed through an HttpMessageConverter to resolve
+ * the method argument depending on the content type of the request.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface RequestBody {
+
+    /**
+     * Whether body content is required.
+     * <p>Default is {@code true}, leading to an exception thrown in case
+     * there is no body content. Switch this to {@code false} if you prefer
+     * {@code null} to be passed when the body content is {@code null}.
+     */
+    boolean required() default true;
+}
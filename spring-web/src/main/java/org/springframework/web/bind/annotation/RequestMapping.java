@@ -36,4 +36,57 @@ public @interface RequestMapping {
 
     @AliasFor("value")
     String[] path() default {};
+
+    /**
+     * The HTTP request methods to map to, narrowing the primary mapping:
+     * GET, POST, HEAD, OPTIONS, PUT, PATCH, DELETE, TRACE.
+     * <p>
+     * Supported at the type level as well as at the method level! When used at the
+     * type level, all method-level mappings inherit this HTTP method restriction.
+     * A mapping without methods matches every HTTP method.
+     */
+    RequestMethod[] method() default {};
+
+    /**
+     * The parameters of the mapped request, narrowing the primary mapping.
+     * <p>
+     * Expressions are "myParam=myValue", "myParam!=myValue", "myParam" or
+     * "!myParam", which require the parameter to have, not to have, to be
+     * present or to be absent respectively.
+     * <p>
+     * Supported at the type level as well as at the method level! When used at
+     * the type level, all method-level mappings inherit this parameter restriction.
+     */
+    String[] params() default {};
+
+    /**
+     * The headers of the mapped request, narrowing the primary mapping, in the
+     * same format as {@link #params()}, e.g. {@code headers = "X-Api-Version=2"}.
+     * Header names are matched case-insensitively.
+     * <p>
+     * Supported at the type level as well as at the method level! When used at
+     * the type level, all method-level mappings inherit this header restriction.
+     */
+    String[] headers() default {};
+
+    /**
+     * Narrows the primary mapping by media types that can be consumed by the
+     * mapped handler, matched against the "Content-Type" request header, e.g.
+     * {@code consumes = "application/json"}.
+     * <p>
+     * Supported at the type level as well as at the method level! If specified
+     * at both levels, the method level consumes condition overrides the type level.
+     */
+    String[] consumes() default {};
+
+    /**
+     * Narrows the primary mapping by media types that can be produced by the
+     * mapped handler, matched against the "Accept" request header, e.g.
+     * {@code produces = "application/json"}. The matching media types are also
+     * the candidates for the content type of the response.
+     * <p>
+     * Supported at the type level as well as at the method level! If specified
+     * at both levels, the method level produces condition overrides the type level.
+     */
+    String[] produces() default {};
 }
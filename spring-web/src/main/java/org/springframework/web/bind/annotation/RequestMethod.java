@@ -0,0 +1,12 @@
+package org.springframework.web.bind.annotation;
+
+/**
+ * Enumeration of HTTP request methods. Intended for use with the
+ * {@link RequestMapping#method()} attribute of the {@link RequestMapping} annotation.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public enum RequestMethod {
+
+    GET, HEAD, POST, PUT, PATCH, DELETE, OPTIONS, TRACE
+}
@@ -0,0 +1,15 @@
+package org.springframework.web.context.request.async;
+
+/**
+ * Result of an async request whose handler did not produce a result in time.
+ * It is handled by answering with 503 (Service Unavailable).
+ *
+ * @author zhangdd on 2022/7/23
+ */
+@SuppressWarnings("serial")
+public class AsyncRequestTimeoutException extends RuntimeException {
+
+    public AsyncRequestTimeoutException() {
+        super("Async request timed out");
+    }
+}
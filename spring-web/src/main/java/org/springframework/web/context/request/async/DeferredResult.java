@@ -0,0 +1,200 @@
+package org.springframework.web.context.request.async;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Return value of a handler method whose result is produced later by another
+ * thread, e.g. in response to an event or a callback of a non-blocking client.
+ * The request is processed asynchronously and completed once
+ * {@link #setResult(Object)} or {@link #setErrorResult(Object)} is called,
+ * or the timeout expires.
+ *
+ * @author zhangdd on 2022/7/23
+ */
+public class DeferredResult<T> {
+
+    private static final Object RESULT_NONE = new Object();
+
+
+    @Nullable
+    private final Long timeoutValue;
+
+    private final Object timeoutResult;
+
+    @Nullable
+    private Runnable timeoutCallback;
+
+    @Nullable
+    private Runnable completionCallback;
+
+    @Nullable
+    private DeferredResultHandler resultHandler;
+
+    @Nullable
+    private volatile Object result = RESULT_NONE;
+
+    private volatile boolean expired;
+
+
+    /**
+     * Create a DeferredResult with the async timeout of the handler adapter.
+     */
+    public DeferredResult() {
+        this(null, RESULT_NONE);
+    }
+
+    /**
+     * Create a DeferredResult with the given timeout in milliseconds.
+     */
+    public DeferredResult(@Nullable Long timeoutValue) {
+        this(timeoutValue, RESULT_NONE);
+    }
+
+    /**
+     * Create a DeferredResult with the given timeout in milliseconds and the
+     * result to use if it expires.
+     */
+    public DeferredResult(@Nullable Long timeoutValue, Object timeoutResult) {
+        this.timeoutValue = timeoutValue;
+        this.timeoutResult = timeoutResult;
+    }
+
+
+    /**
+     * Return the configured timeout value in milliseconds, if any.
+     */
+    @Nullable
+    public Long getTimeoutValue() {
+        return this.timeoutValue;
+    }
+
+    /**
+     * Whether the result has been set or the request has expired, in which case
+     * any further result is ignored.
+     */
+    public final boolean isSetOrExpired() {
+        return (this.result != RESULT_NONE || this.expired);
+    }
+
+    /**
+     * Whether the result has been set.
+     */
+    public boolean hasResult() {
+        return (this.result != RESULT_NONE);
+    }
+
+    /**
+     * Return the result, or {@code null} if it has not been set or was set to
+     * {@code null}; use {@link #hasResult()} to tell the two apart.
+     */
+    @Nullable
+    public Object getResult() {
+        Object resultToCheck = this.result;
+        return (resultToCheck != RESULT_NONE ? resultToCheck : null);
+    }
+
+    /**
+     * Register code to invoke when the async request times out, before the
+     * timeout result is applied.
+     */
+    public void onTimeout(Runnable callback) {
+        this.timeoutCallback = callback;
+    }
+
+    /**
+     * Register code to invoke when the async request completes, whether with a
+     * result, by a timeout or because of a network error.
+     */
+    public void onCompletion(Runnable callback) {
+        this.completionCallback = callback;
+    }
+
+    /**
+     * Set the value for the DeferredResult and handle it.
+     *
+     * @return {@code true} if the result was set and passed on for handling,
+     * {@code false} if the result was already set or the request expired
+     */
+    public boolean setResult(@Nullable T result) {
+        return setResultInternal(result);
+    }
+
+    /**
+     * Set an error value, typically an {@link Exception}, that is raised
+     * when the result is handled.
+     *
+     * @see #setResult(Object)
+     */
+    public boolean setErrorResult(Object result) {
+        return setResultInternal(result);
+    }
+
+    /**
+     * Provide the handler to pass the result to once it is set, handling a
+     * result that was set already right away.
+     */
+    final void setResultHandler(DeferredResultHandler resultHandler) {
+        Object resultToHandle;
+        synchronized (this) {
+            if (this.expired) {
+                return;
+            }
+            resultToHandle = this.result;
+            if (resultToHandle == RESULT_NONE) {
+                this.resultHandler = resultHandler;
+                return;
+            }
+        }
+        resultHandler.handleResult(resultToHandle);
+    }
+
+    private boolean setResultInternal(@Nullable Object result) {
+        DeferredResultHandler resultHandlerToUse;
+        synchronized (this) {
+            if (isSetOrExpired()) {
+                return false;
+            }
+            this.result = result;
+            resultHandlerToUse = this.resultHandler;
+            if (null == resultHandlerToUse) {
+                // Handled once the result handler is set
+                return true;
+            }
+            this.resultHandler = null;
+        }
+        resultHandlerToUse.handleResult(result);
+        return true;
+    }
+
+    /**
+     * Invoke the timeout callback and apply the timeout result, if any.
+     *
+     * @return whether a result was set
+     */
+    final boolean handleTimeout() {
+        if (null != this.timeoutCallback) {
+            this.timeoutCallback.run();
+        }
+        if (this.timeoutResult != RESULT_NONE) {
+            setResultInternal(this.timeoutResult);
+        }
+        return hasResult();
+    }
+
+    final void handleCompletion() {
+        this.expired = true;
+        if (null != this.completionCallback) {
+            this.completionCallback.run();
+        }
+    }
+
+
+    /**
+     * Handles a DeferredResult value when set.
+     */
+    @FunctionalInterface
+    interface DeferredResultHandler {
+
+        void handleResult(@Nullable Object result);
+    }
+}
@@ -0,0 +1,69 @@
+package org.springframework.web.context.request.async;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Reflective access to virtual threads (JDK 21+), so that they can be used
+ * when available while the code is compiled for Java 11.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public abstract class VirtualThreadUtils {
+
+    @Nullable
+    private static final Method ofVirtualMethod;
+
+    @Nullable
+    private static final Method nameMethod;
+
+    @Nullable
+    private static final Method factoryMethod;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builderClass.getMethod("name", String.class, long.class);
+            factory = builderClass.getMethod("factory");
+            // A preview API on JDK 19 and 20 fails unless enabled
+            ofVirtual.invoke(null);
+        } catch (Throwable ex) {
+            ofVirtual = null;
+        }
+        ofVirtualMethod = ofVirtual;
+        nameMethod = name;
+        factoryMethod = factory;
+    }
+
+
+    /**
+     * Whether the running JVM supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return (null != ofVirtualMethod);
+    }
+
+    /**
+     * Return a factory for virtual threads named with the given prefix and a
+     * counter.
+     *
+     * @throws IllegalStateException if virtual threads are not supported
+     */
+    public static ThreadFactory createThreadFactory(String threadNamePrefix) {
+        Assert.state(isSupported(), "Virtual threads are not supported by this JVM");
+        try {
+            Object builder = ofVirtualMethod.invoke(null);
+            builder = nameMethod.invoke(builder, threadNamePrefix, 0L);
+            return (ThreadFactory) factoryMethod.invoke(builder);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Failed to create virtual thread factory", ex);
+        }
+    }
+}
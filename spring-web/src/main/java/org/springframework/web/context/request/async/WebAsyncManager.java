@@ -0,0 +1,282 @@
+package org.springframework.web.context.request.async;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The central class for managing asynchronous request processing. A handler
+ * method return value handler starts it with a {@link Callable} or a
+ * {@link DeferredResult}, after which the container thread is released. Once
+ * the result is available the request is dispatched back to the servlet
+ * through {@link AsyncContext#dispatch()}, where the handler adapter finds the
+ * {@link #getConcurrentResult() concurrent result} and handles it with the same
+ * return value handlers as a synchronous result.
+ * <p>
+ * An instance is kept in a request attribute, see {@link WebAsyncUtils}.
+ *
+ * @author zhangdd on 2022/7/23
+ */
+public final class WebAsyncManager {
+
+    private static final Object RESULT_NONE = new Object();
+
+    private static final AsyncTaskExecutor DEFAULT_TASK_EXECUTOR =
+            new SimpleAsyncTaskExecutor(WebAsyncManager.class.getSimpleName());
+
+    private static final Log logger = LogFactory.getLog(WebAsyncManager.class);
+
+
+    @Nullable
+    private ServletWebRequest asyncWebRequest;
+
+    private AsyncTaskExecutor taskExecutor = DEFAULT_TASK_EXECUTOR;
+
+    @Nullable
+    private Long timeout;
+
+    @Nullable
+    private AsyncContext asyncContext;
+
+    private volatile Object concurrentResult = RESULT_NONE;
+
+    private volatile Object[] concurrentResultContext;
+
+    /**
+     * Whether a result or a timeout has been applied in the current async
+     * cycle, so that the request is dispatched only once.
+     */
+    private boolean resultSet;
+
+
+    WebAsyncManager() {
+    }
+
+
+    /**
+     * Set the request and response to start async processing with.
+     */
+    public void setAsyncWebRequest(ServletWebRequest asyncWebRequest) {
+        Assert.notNull(asyncWebRequest.getResponse(), "ServletWebRequest must have a response");
+        this.asyncWebRequest = asyncWebRequest;
+    }
+
+    /**
+     * Set the executor to run {@link Callable} tasks on.
+     * <p>By default a {@link SimpleAsyncTaskExecutor} is used.
+     */
+    public void setTaskExecutor(AsyncTaskExecutor taskExecutor) {
+        Assert.notNull(taskExecutor, "AsyncTaskExecutor must not be null");
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Set the async timeout in milliseconds, or {@code null} for the default
+     * of the servlet container. A {@link DeferredResult} may override it.
+     */
+    public void setTimeout(@Nullable Long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Whether async processing was started in the current request thread, so
+     * the response must be left alone.
+     */
+    public boolean isConcurrentHandlingStarted() {
+        return (null != this.asyncWebRequest && this.asyncWebRequest.getRequest().isAsyncStarted());
+    }
+
+    /**
+     * Whether a result was produced by async processing.
+     */
+    public boolean hasConcurrentResult() {
+        return (this.concurrentResult != RESULT_NONE);
+    }
+
+    /**
+     * Return the result of async processing, which may be an {@link Exception}
+     * raised by the task or an {@link AsyncRequestTimeoutException}.
+     */
+    @Nullable
+    public Object getConcurrentResult() {
+        return this.concurrentResult;
+    }
+
+    /**
+     * Return the processing context saved when async processing was started.
+     */
+    @Nullable
+    public Object[] getConcurrentResultContext() {
+        return this.concurrentResultContext;
+    }
+
+    /**
+     * Clear the concurrent result once it is being handled.
+     */
+    public void clearConcurrentResult() {
+        synchronized (this) {
+            this.concurrentResult = RESULT_NONE;
+            this.concurrentResultContext = null;
+        }
+    }
+
+    /**
+     * Start async processing with the given task on the configured executor.
+     *
+     * @param callable          the task to execute
+     * @param processingContext context to save for the handling of the result
+     */
+    public void startCallableProcessing(Callable<?> callable, Object... processingContext) throws Exception {
+        startCallableProcessing(callable, this.taskExecutor, processingContext);
+    }
+
+    /**
+     * Start async processing with the given task on the given executor.
+     *
+     * @param callable          the task to execute
+     * @param taskExecutor      the executor to run the task on
+     * @param processingContext context to save for the handling of the result
+     */
+    public void startCallableProcessing(Callable<?> callable, AsyncTaskExecutor taskExecutor,
+                                        Object... processingContext) throws Exception {
+        Assert.notNull(callable, "Callable must not be null");
+        Assert.notNull(taskExecutor, "AsyncTaskExecutor must not be null");
+        startAsyncProcessing(this.timeout, processingContext);
+        AsyncContext asyncContext = this.asyncContext;
+
+        AtomicReference<Future<?>> future = new AtomicReference<>();
+        asyncContext.addListener(new ResultListener(asyncContext) {
+            @Override
+            void timeout() {
+                Future<?> task = future.get();
+                if (null != task) {
+                    task.cancel(true);
+                }
+                setConcurrentResultAndDispatch(asyncContext, new AsyncRequestTimeoutException());
+            }
+        });
+        try {
+            future.set(taskExecutor.submit(() -> {
+                Object result;
+                try {
+                    result = callable.call();
+                } catch (Throwable ex) {
+                    result = ex;
+                }
+                setConcurrentResultAndDispatch(asyncContext, result);
+            }));
+        } catch (RuntimeException ex) {
+            // E.g. the executor rejected the task
+            setConcurrentResultAndDispatch(asyncContext, ex);
+        }
+    }
+
+    /**
+     * Start async processing that completes when the given DeferredResult is set.
+     *
+     * @param deferredResult    the DeferredResult to wait for
+     * @param processingContext context to save for the handling of the result
+     */
+    public void startDeferredResultProcessing(DeferredResult<?> deferredResult,
+                                              Object... processingContext) throws Exception {
+        Assert.notNull(deferredResult, "DeferredResult must not be null");
+        Long timeout = (null != deferredResult.getTimeoutValue() ? deferredResult.getTimeoutValue() : this.timeout);
+        startAsyncProcessing(timeout, processingContext);
+        AsyncContext asyncContext = this.asyncContext;
+
+        asyncContext.addListener(new ResultListener(asyncContext) {
+            @Override
+            void timeout() {
+                if (!deferredResult.handleTimeout()) {
+                    setConcurrentResultAndDispatch(asyncContext, new AsyncRequestTimeoutException());
+                }
+            }
+
+            @Override
+            void completed() {
+                deferredResult.handleCompletion();
+            }
+        });
+        deferredResult.setResultHandler(result -> setConcurrentResultAndDispatch(asyncContext, result));
+    }
+
+    private void startAsyncProcessing(@Nullable Long timeout, Object[] processingContext) {
+        Assert.state(null != this.asyncWebRequest, "AsyncWebRequest must not be null");
+        synchronized (this) {
+            this.concurrentResult = RESULT_NONE;
+            this.concurrentResultContext = processingContext;
+            this.resultSet = false;
+        }
+        HttpServletRequest request = this.asyncWebRequest.getRequest();
+        HttpServletResponse response = this.asyncWebRequest.getResponse();
+        AsyncContext asyncContext = request.startAsync(request, response);
+        if (null != timeout) {
+            asyncContext.setTimeout(timeout);
+        }
+        this.asyncContext = asyncContext;
+    }
+
+    private void setConcurrentResultAndDispatch(AsyncContext asyncContext, @Nullable Object result) {
+        synchronized (this) {
+            if (this.resultSet || asyncContext != this.asyncContext) {
+                return;
+            }
+            this.resultSet = true;
+            this.concurrentResult = result;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Async result set, dispatching to " + this.asyncWebRequest.getRequest().getRequestURI());
+        }
+        asyncContext.dispatch();
+    }
+
+
+    /**
+     * Reacts to the end of one async cycle of the request.
+     */
+    private abstract class ResultListener implements AsyncListener {
+
+        private final AsyncContext asyncContext;
+
+        ResultListener(AsyncContext asyncContext) {
+            this.asyncContext = asyncContext;
+        }
+
+        abstract void timeout();
+
+        void completed() {
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            timeout();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            setConcurrentResultAndDispatch(this.asyncContext, event.getThrowable());
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            completed();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.springframework.web.context.request.async;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Utility methods related to processing asynchronous web requests.
+ *
+ * @author zhangdd on 2022/7/23
+ */
+public abstract class WebAsyncUtils {
+
+    /**
+     * The name attribute containing the {@link WebAsyncManager}.
+     */
+    public static final String WEB_ASYNC_MANAGER_ATTRIBUTE =
+            WebAsyncManager.class.getName() + ".WEB_ASYNC_MANAGER";
+
+
+    /**
+     * Obtain the {@link WebAsyncManager} for the current request, or if not
+     * found, create and associate it with the request. The manager is kept
+     * for the async dispatch that handles the result.
+     */
+    public static WebAsyncManager getAsyncManager(ServletRequest servletRequest) {
+        WebAsyncManager asyncManager = (WebAsyncManager) servletRequest.getAttribute(WEB_ASYNC_MANAGER_ATTRIBUTE);
+        if (null == asyncManager) {
+            asyncManager = new WebAsyncManager();
+            servletRequest.setAttribute(WEB_ASYNC_MANAGER_ATTRIBUTE, asyncManager);
+        }
+        return asyncManager;
+    }
+
+    /**
+     * Return the {@link WebAsyncManager} of the current request, or {@code null}
+     * if async processing has never been started for it.
+     */
+    @Nullable
+    public static WebAsyncManager getExistingAsyncManager(ServletRequest servletRequest) {
+        return (WebAsyncManager) servletRequest.getAttribute(WEB_ASYNC_MANAGER_ATTRIBUTE);
+    }
+
+    /**
+     * Obtain the {@link WebAsyncManager} like {@link #getAsyncManager(ServletRequest)}
+     * and prepare it to start async processing for the given request. Called
+     * only once async processing is about to start, so that synchronous
+     * requests never create a manager.
+     *
+     * @param taskExecutor the executor for {@code Callable} tasks, or
+     *                     {@code null} for the default one
+     * @param timeout      the async timeout in milliseconds, or {@code null}
+     *                     for the default of the servlet container
+     */
+    public static WebAsyncManager getAsyncManager(NativeWebRequest webRequest,
+                                                  @Nullable AsyncTaskExecutor taskExecutor, @Nullable Long timeout) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        WebAsyncManager asyncManager = getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(webRequest instanceof ServletWebRequest ? (ServletWebRequest) webRequest :
+                new ServletWebRequest(request, webRequest.getNativeResponse(HttpServletResponse.class)));
+        if (null != taskExecutor) {
+            asyncManager.setTaskExecutor(taskExecutor);
+        }
+        asyncManager.setTimeout(timeout);
+        return asyncManager;
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
+import org.springframework.web.method.support.HandlerMethodInvoker;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
@@ -38,6 +39,16 @@ public class HandlerMethod {
 
     protected final Method bridgedMethod;
 
+    private final MethodParameter[] parameters;
+
+    private final HandlerMethodInvoker invoker;
+
+    @Nullable
+    private final HandlerMethod resolvedFromHandlerMethod;
+
+    @Nullable
+    private volatile HandlerMethod resolvedSingletonHandlerMethod;
+
     public HandlerMethod(Object bean, Method method) {
         this.bean = bean;
         this.beanFactory = null;
@@ -45,6 +56,9 @@ public class HandlerMethod {
         this.beanType = ClassUtils.getUserClass(bean);
         this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
         ReflectionUtils.makeAccessible(this.bridgedMethod);
+        this.parameters = initMethodParameters();
+        this.invoker = HandlerMethodInvoker.forMethod(this.bridgedMethod);
+        this.resolvedFromHandlerMethod = null;
     }
 
     public HandlerMethod(String beanName, BeanFactory beanFactory,
@@ -62,6 +76,9 @@ public class HandlerMethod {
         this.method = method;
         this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
         ReflectionUtils.makeAccessible(this.bridgedMethod);
+        this.parameters = initMethodParameters();
+        this.invoker = HandlerMethodInvoker.forMethod(this.bridgedMethod);
+        this.resolvedFromHandlerMethod = null;
     }
 
     protected HandlerMethod(HandlerMethod handlerMethod) {
@@ -71,9 +88,16 @@ public class HandlerMethod {
         this.beanType = handlerMethod.beanType;
         this.bridgedMethod = handlerMethod.bridgedMethod;
         this.beanFactory = handlerMethod.beanFactory;
+        // Own parameters, since they refer to the HandlerMethod that created them
+        this.parameters = initMethodParameters();
+        this.invoker = handlerMethod.invoker;
+        this.resolvedFromHandlerMethod = handlerMethod.resolvedFromHandlerMethod;
     }
 
-    private HandlerMethod(HandlerMethod handlerMethod, Object handler) {
+    /**
+     * Re-create a HandlerMethod with the given handler instance.
+     */
+    protected HandlerMethod(HandlerMethod handlerMethod, Object handler) {
         Assert.notNull(handlerMethod, "HandlerMethod is required");
         Assert.notNull(handler, "Handler object is required");
         this.bean = handler;
@@ -81,6 +105,10 @@ public class HandlerMethod {
         this.beanType = handlerMethod.beanType;
         this.bridgedMethod = handlerMethod.bridgedMethod;
         this.beanFactory = handlerMethod.beanFactory;
+        this.parameters = handlerMethod.parameters;
+        this.invoker = handlerMethod.invoker;
+        this.resolvedFromHandlerMethod = (null != handlerMethod.resolvedFromHandlerMethod ?
+                handlerMethod.resolvedFromHandlerMethod : handlerMethod);
     }
 
     public Object getBean() {
@@ -99,19 +127,68 @@ public class HandlerMethod {
         return bridgedMethod;
     }
 
+    /**
+     * Return the method parameters for this handler method, created once and
+     * shared with the copies for resolved handler instances.
+     */
+    public MethodParameter[] getMethodParameters() {
+        return this.parameters;
+    }
+
+    private MethodParameter[] initMethodParameters() {
+        int count = this.bridgedMethod.getParameterCount();
+        MethodParameter[] result = new MethodParameter[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new HandlerMethodParameter(i);
+        }
+        return result;
+    }
+
+    /**
+     * Return the invoker bound to the bridged method when this handler method
+     * was created, shared by all copies of it.
+     */
+    public HandlerMethodInvoker getInvoker() {
+        return this.invoker;
+    }
+
+    /**
+     * Return the HandlerMethod from which this HandlerMethod instance was
+     * resolved via {@link #createWithResolvedBean()}, i.e. the one that was
+     * registered, or {@code null} if this is the registered instance.
+     */
+    @Nullable
+    public HandlerMethod getResolvedFromHandlerMethod() {
+        return this.resolvedFromHandlerMethod;
+    }
+
     public MethodParameter getReturnValueType(@Nullable Object returnValue) {
         return new ReturnValueMethodParameter(returnValue);
     }
 
+    /**
+     * If the provided instance contains a bean name rather than an object instance,
+     * the bean name is resolved before a {@link HandlerMethod} is created and returned.
+     * <p>
+     * A handler registered with a bean instance is returned as is, and the
+     * HandlerMethod for a singleton bean is created once and reused, so that
+     * only prototype and scoped beans cost an allocation per request.
+     */
     public HandlerMethod createWithResolvedBean() {
-        Object handler = this.bean;
-        if (this.bean instanceof String) {
-            Assert.state(this.beanFactory != null, "Cannot resolve bean name without BeanFactory");
-            String beanName = ((String) this.bean);
-            handler = this.beanFactory.getBean(beanName);
+        if (!(this.bean instanceof String)) {
+            return this;
         }
-
-        return new HandlerMethod(this, handler);
+        HandlerMethod resolved = this.resolvedSingletonHandlerMethod;
+        if (null != resolved) {
+            return resolved;
+        }
+        Assert.state(this.beanFactory != null, "Cannot resolve bean name without BeanFactory");
+        String beanName = ((String) this.bean);
+        resolved = new HandlerMethod(this, this.beanFactory.getBean(beanName));
+        if (this.beanFactory.isSingleton(beanName)) {
+            this.resolvedSingletonHandlerMethod = resolved;
+        }
+        return resolved;
     }
 
     protected class HandlerMethodParameter extends SynthesizingMethodParameter {
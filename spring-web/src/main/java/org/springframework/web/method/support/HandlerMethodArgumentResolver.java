@@ -0,0 +1,29 @@
+package org.springframework.web.method.support;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.NativeWebRequest;
+
+/**
+ * Strategy interface for resolving method parameters into argument values in
+ * the context of a given request.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public interface HandlerMethodArgumentResolver {
+
+    /**
+     * Whether the given {@linkplain MethodParameter method parameter} is
+     * supported by this resolver.
+     */
+    boolean supportsParameter(MethodParameter parameter);
+
+    /**
+     * Resolves a method parameter into an argument value from a given request.
+     *
+     * @return the resolved argument value, or {@code null} if not resolvable
+     */
+    @Nullable
+    Object resolveArgument(MethodParameter parameter, @Nullable ModelAndViewContainer mavContainer,
+                           NativeWebRequest webRequest) throws Exception;
+}
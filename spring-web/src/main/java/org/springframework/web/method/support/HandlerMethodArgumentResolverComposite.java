@@ -0,0 +1,71 @@
+package org.springframework.web.method.support;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.NativeWebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves method parameters by delegating to a list of registered
+ * {@link HandlerMethodArgumentResolver HandlerMethodArgumentResolvers}.
+ * Previously resolved method parameters are cached for faster lookups.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgumentResolver {
+
+    private final List<HandlerMethodArgumentResolver> argumentResolvers = new ArrayList<>();
+
+    private final Map<MethodParameter, HandlerMethodArgumentResolver> argumentResolverCache =
+            new ConcurrentHashMap<>(256);
+
+
+    public HandlerMethodArgumentResolverComposite addResolvers(
+            @Nullable List<? extends HandlerMethodArgumentResolver> resolvers) {
+        if (null != resolvers) {
+            this.argumentResolvers.addAll(resolvers);
+            this.argumentResolverCache.clear();
+        }
+        return this;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return null != getArgumentResolver(parameter);
+    }
+
+    @Override
+    @Nullable
+    public Object resolveArgument(MethodParameter parameter, @Nullable ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+        HandlerMethodArgumentResolver resolver = getArgumentResolver(parameter);
+        if (null == resolver) {
+            throw new IllegalArgumentException("Unsupported parameter type [" +
+                    parameter.getParameterType().getName() + "]. supportsParameter should be called first.");
+        }
+        return resolver.resolveArgument(parameter, mavContainer, webRequest);
+    }
+
+    /**
+     * Find a registered {@link HandlerMethodArgumentResolver} that supports
+     * the given method parameter, looking it up in the cache first.
+     */
+    @Nullable
+    private HandlerMethodArgumentResolver getArgumentResolver(MethodParameter parameter) {
+        HandlerMethodArgumentResolver result = this.argumentResolverCache.get(parameter);
+        if (null == result) {
+            for (HandlerMethodArgumentResolver resolver : this.argumentResolvers) {
+                if (resolver.supportsParameter(parameter)) {
+                    result = resolver;
+                    this.argumentResolverCache.put(parameter, result);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package org.springframework.web.method.support;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Method;
+
+/**
+ * Strategy to invoke a handler method on a bean, bound once to the method when
+ * the {@code HandlerMethod} is created so that nothing about the method needs
+ * to be looked up or checked per request.
+ * <p>
+ * {@link #forMethod(Method)} binds a {@code MethodHandle} and falls back to
+ * reflection if the method cannot be unreflected.
+ *
+ * @author zhangdd on 2022/7/2
+ */
+@FunctionalInterface
+public interface HandlerMethodInvoker {
+
+    /**
+     * Invoke the bound method on the given bean with the given arguments.
+     * Exceptions thrown by the method itself are propagated as they are.
+     */
+    @Nullable
+    Object invoke(Object bean, Object[] args) throws Exception;
+
+
+    /**
+     * Create an invoker for the given method, which should already have been
+     * made accessible.
+     */
+    static HandlerMethodInvoker forMethod(Method method) {
+        try {
+            return new MethodHandleInvoker(method);
+        } catch (IllegalAccessException | RuntimeException ex) {
+            Log logger = LogFactory.getLog(HandlerMethodInvoker.class);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Falling back on reflection for " + method + ": " + ex);
+            }
+            return new ReflectiveInvoker(method);
+        }
+    }
+}
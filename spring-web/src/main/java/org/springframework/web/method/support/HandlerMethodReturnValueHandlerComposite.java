@@ -4,8 +4,11 @@ import org.springframework.core.MethodParameter;
 import org.springframework.lang.Nullable;
 import org.springframework.web.context.request.NativeWebRequest;
 
+import java.lang.reflect.Executable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles method return values by delegating to a list of registered
@@ -18,19 +21,33 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 
     private final List<HandlerMethodReturnValueHandler> returnValueHandlers = new ArrayList<>();
 
+    private final Map<ReturnTypeKey, HandlerMethodReturnValueHandler> returnValueHandlerCache =
+            new ConcurrentHashMap<>(64);
+
     @Override
     public boolean supportsReturnType(MethodParameter returnType) {
         return null != getReturnValueHandler(returnType);
     }
 
+    /**
+     * Find a registered {@link HandlerMethodReturnValueHandler} that supports the
+     * given return type, looking it up in the cache first. The key includes the
+     * parameter type, since that may be the type of the actual return value.
+     */
     @Nullable
     private HandlerMethodReturnValueHandler getReturnValueHandler(MethodParameter returnType) {
-        for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
-            if (handler.supportsReturnType(returnType)) {
-                return handler;
+        ReturnTypeKey key = new ReturnTypeKey(returnType);
+        HandlerMethodReturnValueHandler result = this.returnValueHandlerCache.get(key);
+        if (null == result) {
+            for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
+                if (handler.supportsReturnType(returnType)) {
+                    result = handler;
+                    this.returnValueHandlerCache.put(key, result);
+                    break;
+                }
             }
         }
-        return null;
+        return result;
     }
 
     @Override
@@ -44,12 +61,7 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 
     @Nullable
     private HandlerMethodReturnValueHandler selectHandler(@Nullable Object value, MethodParameter returnType) {
-        for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
-            if (handler.supportsReturnType(returnType)) {
-                return handler;
-            }
-        }
-        return null;
+        return getReturnValueHandler(returnType);
     }
 
 
@@ -57,7 +69,61 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
             @Nullable List<? extends HandlerMethodReturnValueHandler> handlers) {
         if (null != handlers) {
             this.returnValueHandlers.addAll(handlers);
+            this.returnValueHandlerCache.clear();
         }
         return this;
     }
+
+
+    /**
+     * Cache key for a return type. It holds only the immutable parts of the
+     * {@link MethodParameter}, never the parameter itself, which may hold the
+     * actual return value of a call. The parameter type is included since it
+     * differs between calls when it is the type of the actual return value.
+     */
+    private static final class ReturnTypeKey {
+
+        private final Executable executable;
+
+        private final int parameterIndex;
+
+        private final int nestingLevel;
+
+        private final Class<?> containingClass;
+
+        private final Class<?> parameterType;
+
+        private final Class<?> returnTypeClass;
+
+        private final int hashCode;
+
+        ReturnTypeKey(MethodParameter returnType) {
+            this.executable = returnType.getExecutable();
+            this.parameterIndex = returnType.getParameterIndex();
+            this.nestingLevel = returnType.getNestingLevel();
+            this.containingClass = returnType.getContainingClass();
+            this.parameterType = returnType.getParameterType();
+            this.returnTypeClass = returnType.getClass();
+            this.hashCode = (this.executable.hashCode() * 31 + this.parameterIndex) * 31 + this.parameterType.hashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ReturnTypeKey)) {
+                return false;
+            }
+            ReturnTypeKey otherKey = (ReturnTypeKey) other;
+            return (this.parameterIndex == otherKey.parameterIndex && this.nestingLevel == otherKey.nestingLevel &&
+                    this.parameterType == otherKey.parameterType && this.containingClass == otherKey.containingClass &&
+                    this.returnTypeClass == otherKey.returnTypeClass && this.executable.equals(otherKey.executable));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
 }
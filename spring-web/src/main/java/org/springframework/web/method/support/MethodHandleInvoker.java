@@ -0,0 +1,49 @@
+package org.springframework.web.method.support;
+
+import org.springframework.lang.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * {@link HandlerMethodInvoker} that calls the method through a {@link MethodHandle}
+ * adapted once to {@code (Object, Object[])Object}, so that invocation skips the
+ * access and argument checks of {@link Method#invoke} and can be inlined by the JIT.
+ *
+ * @author zhangdd on 2022/7/2
+ */
+final class MethodHandleInvoker implements HandlerMethodInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final MethodHandle methodHandle;
+
+
+    MethodHandleInvoker(Method method) throws IllegalAccessException {
+        MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        int parameterCount = method.getParameterCount();
+        this.methodHandle = handle
+                .asType(handle.type().generic())
+                .asSpreader(Object[].class, parameterCount)
+                .asType(INVOKER_TYPE);
+    }
+
+
+    @Override
+    @Nullable
+    public Object invoke(Object bean, Object[] args) throws Exception {
+        try {
+            return this.methodHandle.invokeExact(bean, args);
+        } catch (Exception | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Invocation failure", ex);
+        }
+    }
+}
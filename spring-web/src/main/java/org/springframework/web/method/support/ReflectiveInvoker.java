@@ -0,0 +1,40 @@
+package org.springframework.web.method.support;
+
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * {@link HandlerMethodInvoker} that calls the method via {@link Method#invoke},
+ * unwrapping the exception thrown by the method itself.
+ *
+ * @author zhangdd on 2022/7/2
+ */
+final class ReflectiveInvoker implements HandlerMethodInvoker {
+
+    private final Method method;
+
+
+    ReflectiveInvoker(Method method) {
+        this.method = method;
+    }
+
+
+    @Override
+    @Nullable
+    public Object invoke(Object bean, Object[] args) throws Exception {
+        try {
+            return this.method.invoke(bean, args);
+        } catch (InvocationTargetException ex) {
+            Throwable targetException = ex.getTargetException();
+            if (targetException instanceof Exception) {
+                throw (Exception) targetException;
+            } else if (targetException instanceof Error) {
+                throw (Error) targetException;
+            } else {
+                throw new IllegalStateException("Invocation failure", targetException);
+            }
+        }
+    }
+}
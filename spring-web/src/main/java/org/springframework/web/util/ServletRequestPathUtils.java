@@ -0,0 +1,50 @@
+package org.springframework.web.util;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.Assert;
+
+import javax.servlet.ServletRequest;
+
+/**
+ * Utility class to assist with preparation and access to the lookup path for
+ * request mapping purposes, parsed into a {@link PathContainer} so it can be
+ * matched against many {@link org.springframework.web.util.pattern.PathPattern}s
+ * without splitting it again.
+ *
+ * @author zhangdd on 2022/7/16
+ */
+public abstract class ServletRequestPathUtils {
+
+    /**
+     * Name of Servlet request attribute that holds the parsed {@link PathContainer}.
+     */
+    public static final String PATH_ATTRIBUTE = ServletRequestPathUtils.class.getName() + ".PATH";
+
+
+    /**
+     * Parse the given lookup path into a {@link PathContainer} and cache it in
+     * the request attribute {@link #PATH_ATTRIBUTE} for subsequent use with
+     * {@link org.springframework.web.util.pattern.PathPattern parsed patterns}.
+     */
+    public static PathContainer parseAndCache(ServletRequest request, String lookupPath) {
+        PathContainer path = PathContainer.parsePath(lookupPath);
+        request.setAttribute(PATH_ATTRIBUTE, path);
+        return path;
+    }
+
+    /**
+     * Return a {@link #parseAndCache previously} parsed {@link PathContainer}.
+     */
+    public static PathContainer getParsedRequestPath(ServletRequest request) {
+        PathContainer path = (PathContainer) request.getAttribute(PATH_ATTRIBUTE);
+        Assert.notNull(path, "Expected parsed RequestPath in request attribute \"" + PATH_ATTRIBUTE + "\".");
+        return path;
+    }
+
+    /**
+     * Check for a {@link #parseAndCache previously} parsed {@link PathContainer}.
+     */
+    public static boolean hasParsedRequestPath(ServletRequest request) {
+        return (request.getAttribute(PATH_ATTRIBUTE) != null);
+    }
+}
@@ -9,7 +9,10 @@ import org.springframework.util.StringUtils;
 import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
 import java.net.URLDecoder;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Helper class for URL path matching. Provides for URL paths in
@@ -34,11 +37,35 @@ public class UrlPathHelper {
 
     private boolean uriDecode = true;
 
+    @Nullable
+    private volatile LookupPathCache lookupPathCache;
+
 
     public String getDefaultEncoding() {
         return defaultEncoding;
     }
 
+    /**
+     * Set the maximum number of request URIs for which to keep the resolved
+     * lookup path, shared across requests. Reads take no lock; once the limit
+     * is reached the cache is cleared and refills with the URIs requested next.
+     * This helps when a small number of fixed URIs makes up most of the traffic.
+     * <p>
+     * Default is 0, i.e. no cache. Include requests are never cached.
+     */
+    public void setLookupPathCacheLimit(int cacheLimit) {
+        Assert.isTrue(cacheLimit >= 0, "Cache limit must not be negative");
+        this.lookupPathCache = (cacheLimit > 0 ? new LookupPathCache(cacheLimit) : null);
+    }
+
+    /**
+     * Return the maximum number of cached lookup paths, or 0 if not caching.
+     */
+    public int getLookupPathCacheLimit() {
+        LookupPathCache cache = this.lookupPathCache;
+        return (null != cache ? cache.cacheLimit : 0);
+    }
+
     /**
      *
      */
@@ -54,7 +81,27 @@ public class UrlPathHelper {
         return lookupPath;
     }
 
+    /**
+     * Return the path within the servlet mapping, or within the web application
+     * if the servlet is mapped to "/", served from the
+     * {@link #setLookupPathCacheLimit lookup path cache} if enabled.
+     */
     public String getLookupPathForRequest(HttpServletRequest request) {
+        LookupPathCache cache = this.lookupPathCache;
+        if (null == cache || null != request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE)) {
+            return resolveLookupPath(request);
+        }
+        String requestUri = request.getRequestURI();
+        CachedLookupPath cached = cache.get(requestUri);
+        if (null != cached && cached.matches(request)) {
+            return cached.lookupPath;
+        }
+        String lookupPath = resolveLookupPath(request);
+        cache.put(requestUri, new CachedLookupPath(request, lookupPath));
+        return lookupPath;
+    }
+
+    private String resolveLookupPath(HttpServletRequest request) {
         String pathWithinApp = getPathWithinApplication(request);
         String rest = getPathWithinServletMapping(request, pathWithinApp);
         if (StringUtils.hasLength(rest)) {
@@ -146,6 +193,9 @@ public class UrlPathHelper {
         if (StringUtils.matchesCharacter(contextPath, '/')) {
             contextPath = "";
         }
+        if (contextPath.indexOf('%') == -1) {
+            return contextPath;
+        }
         return decodeRequestString(request, contextPath);
     }
 
@@ -170,12 +220,31 @@ public class UrlPathHelper {
 
 
     private String decodeAndCleanUriString(HttpServletRequest request, String uri) {
+        if (isCleanUri(uri)) {
+            return uri;
+        }
         uri = removeSemicolonContent(uri);
         uri = decodeRequestString(request, uri);
         uri = getSanitizedPath(uri);
         return uri;
     }
 
+    /**
+     * Whether the URI has nothing to remove, decode or sanitize, i.e. contains no
+     * {@code '%'}, no {@code ';'} and no {@code "//"}, checked in a single scan.
+     */
+    private static boolean isCleanUri(String uri) {
+        char prev = 0;
+        for (int i = 0; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c == '%' || c == ';' || (c == '/' && prev == '/')) {
+                return false;
+            }
+            prev = c;
+        }
+        return true;
+    }
+
     public String removeSemicolonContent(String requestUri) {
         return this.removeSemicolonContent ?
                 removeSemicolonContentInternal(requestUri) :
@@ -305,4 +374,70 @@ public class UrlPathHelper {
         }
         return enc;
     }
+
+
+    /**
+     * Resolved lookup path along with the request state it was resolved from,
+     * other than the request URI used as the cache key.
+     */
+    private static final class CachedLookupPath {
+
+        private final String contextPath;
+
+        private final String servletPath;
+
+        @Nullable
+        private final String pathInfo;
+
+        @Nullable
+        private final String encoding;
+
+        private final String lookupPath;
+
+        CachedLookupPath(HttpServletRequest request, String lookupPath) {
+            this.contextPath = request.getContextPath();
+            this.servletPath = request.getServletPath();
+            this.pathInfo = request.getPathInfo();
+            this.encoding = request.getCharacterEncoding();
+            this.lookupPath = lookupPath;
+        }
+
+        boolean matches(HttpServletRequest request) {
+            return (this.servletPath.equals(request.getServletPath()) &&
+                    this.contextPath.equals(request.getContextPath()) &&
+                    Objects.equals(this.pathInfo, request.getPathInfo()) &&
+                    Objects.equals(this.encoding, request.getCharacterEncoding()));
+        }
+    }
+
+
+    /**
+     * Bounded concurrent map from request URI to {@link CachedLookupPath}. When
+     * full it is cleared rather than tracking recency, so that lookups do not
+     * contend: frequent URIs are back after a few requests, while a stream of
+     * one-off URIs cannot pin the cache.
+     */
+    private static final class LookupPathCache {
+
+        private final Map<String, CachedLookupPath> cache;
+
+        private final int cacheLimit;
+
+        LookupPathCache(int cacheLimit) {
+            this.cache = new ConcurrentHashMap<>(Math.min(cacheLimit, 256));
+            this.cacheLimit = cacheLimit;
+        }
+
+        @Nullable
+        CachedLookupPath get(String requestUri) {
+            return this.cache.get(requestUri);
+        }
+
+        void put(String requestUri, CachedLookupPath cached) {
+            if (this.cache.size() >= this.cacheLimit) {
+                this.cache.clear();
+            }
+            this.cache.put(requestUri, cached);
+        }
+    }
 }
@@ -0,0 +1,80 @@
+package org.springframework.web.util.pattern;
+
+import org.springframework.http.server.PathContainer.Element;
+import org.springframework.web.util.pattern.PathPattern.MatchingContext;
+
+import java.util.List;
+
+/**
+ * A path element representing capturing the rest of a path. In the pattern
+ * '/foo/{*foobar}' the /{*foobar} is represented as a {@link CaptureTheRestPathElement}.
+ *
+ * @author zhangdd on 2022/7/16
+ */
+class CaptureTheRestPathElement extends PathElement {
+
+    private final String variableName;
+
+
+    /**
+     * Create a new {@link CaptureTheRestPathElement} instance.
+     *
+     * @param pos               position of the path element within the path pattern text
+     * @param captureDescriptor a character array containing contents like '{' '*' 'a' 'b' '}'
+     * @param separator         the separator used in the path pattern
+     */
+    CaptureTheRestPathElement(int pos, char[] captureDescriptor, char separator) {
+        super(pos, separator);
+        this.variableName = new String(captureDescriptor, 2, captureDescriptor.length - 3);
+    }
+
+
+    @Override
+    public boolean matches(int pathIndex, MatchingContext matchingContext) {
+        // No need to handle 'match start' checking as this captures everything
+        // anyway and cannot be followed by anything else
+        // assert next == null
+
+        // If there is more data, it must start with the separator
+        if (pathIndex < matchingContext.pathLength && !matchingContext.isSeparator(pathIndex)) {
+            return false;
+        }
+        if (matchingContext.extractingVariables) {
+            matchingContext.set(this.variableName, pathToString(pathIndex, matchingContext.pathElements));
+        }
+        return true;
+    }
+
+    private String pathToString(int fromSegment, List<Element> pathElements) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = fromSegment, max = pathElements.size(); i < max; i++) {
+            sb.append(pathElements.get(i).value());
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public int getNormalizedLength() {
+        return 1;
+    }
+
+    @Override
+    public char[] getChars() {
+        return ("/{*" + this.variableName + "}").toCharArray();
+    }
+
+    @Override
+    public int getWildcardCount() {
+        return 0;
+    }
+
+    @Override
+    public int getCaptureCount() {
+        return 1;
+    }
+
+    @Override
+    public String toString() {
+        return "CaptureTheRest(/{*" + this.variableName + "})";
+    }
+}
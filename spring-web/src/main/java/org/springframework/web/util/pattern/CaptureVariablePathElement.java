@@ -0,0 +1,133 @@
+package org.springframework.web.util.pattern;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.util.pattern.PathPattern.MatchingContext;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A path element representing capturing a piece of the path as a variable. In the pattern
+ * '/foo/{bar}/goo' the {bar} is represented as a {@link CaptureVariablePathElement}. There
+ * must be at least one character to bind to the variable.
+ *
+ * @author zhangdd on 2022/7/16
+ */
+class CaptureVariablePathElement extends PathElement {
+
+    private final String variableName;
+
+    @Nullable
+    private final Pattern constraintPattern;
+
+
+    /**
+     * Create a new {@link CaptureVariablePathElement} instance.
+     *
+     * @param pos               the position in the pattern of this capture element
+     * @param captureDescriptor is of the form {AAAAA[:pattern]}
+     */
+    CaptureVariablePathElement(int pos, char[] captureDescriptor, boolean caseSensitive, char separator) {
+        super(pos, separator);
+        int colon = -1;
+        for (int i = 0; i < captureDescriptor.length; i++) {
+            if (captureDescriptor[i] == ':') {
+                colon = i;
+                break;
+            }
+        }
+        if (colon == -1) {
+            // no constraint
+            this.variableName = new String(captureDescriptor, 1, captureDescriptor.length - 2);
+            this.constraintPattern = null;
+        } else {
+            this.variableName = new String(captureDescriptor, 1, colon - 1);
+            String constraint = new String(captureDescriptor, colon + 1, captureDescriptor.length - colon - 2);
+            this.constraintPattern = caseSensitive ?
+                    Pattern.compile(constraint) :
+                    Pattern.compile(constraint, Pattern.CASE_INSENSITIVE);
+            if (this.constraintPattern.matcher("").groupCount() != 0) {
+                throw new IllegalArgumentException(
+                        "No capture groups allowed in the constraint regex: " + constraint);
+            }
+        }
+    }
+
+
+    @Override
+    public boolean matches(int pathIndex, MatchingContext matchingContext) {
+        if (pathIndex >= matchingContext.pathLength) {
+            // no more path left to match this element
+            return false;
+        }
+        String candidateCapture = matchingContext.pathElementValue(pathIndex);
+        if (candidateCapture.length() == 0) {
+            return false;
+        }
+
+        if (null != this.constraintPattern) {
+            Matcher matcher = this.constraintPattern.matcher(candidateCapture);
+            if (!matcher.matches()) {
+                return false;
+            }
+        }
+
+        boolean match;
+        pathIndex++;
+        if (isNoMorePattern()) {
+            match = (pathIndex == matchingContext.pathLength);
+            if (!match && matchingContext.isMatchOptionalTrailingSeparator()) {
+                match = (pathIndex + 1) == matchingContext.pathLength && matchingContext.isSeparator(pathIndex);
+            }
+        } else {
+            match = (this.next != null && this.next.matches(pathIndex, matchingContext));
+        }
+
+        if (match && matchingContext.extractingVariables) {
+            matchingContext.set(this.variableName, candidateCapture);
+        }
+        return match;
+    }
+
+    public String getVariableName() {
+        return this.variableName;
+    }
+
+    @Override
+    public int getNormalizedLength() {
+        return 1;
+    }
+
+    @Override
+    public char[] getChars() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        sb.append(this.variableName);
+        if (null != this.constraintPattern) {
+            sb.append(':').append(this.constraintPattern.pattern());
+        }
+        sb.append('}');
+        return sb.toString().toCharArray();
+    }
+
+    @Override
+    public int getWildcardCount() {
+        return 0;
+    }
+
+    @Override
+    public int getCaptureCount() {
+        return 1;
+    }
+
+    @Override
+    public int getScore() {
+        return CAPTURE_VARIABLE_WEIGHT;
+    }
+
+    @Override
+    public String toString() {
+        return "CaptureVariable({" + this.variableName +
+                (null != this.constraintPattern ? ":" + this.constraintPattern.pattern() : "") + "})";
+    }
+}
@@ -0,0 +1,101 @@
+package org.springframework.web.util.pattern;
+
+import org.springframework.http.server.PathContainer.Element;
+import org.springframework.http.server.PathContainer.PathSegment;
+import org.springframework.web.util.pattern.PathPattern.MatchingContext;
+
+/**
+ * A literal path element. In the pattern '/foo/bar/goo' there are three
+ * literal path elements 'foo', 'bar' and 'goo'.
+ *
+ * @author zhangdd on 2022/7/16
+ */
+class LiteralPathElement extends PathElement {
+
+    private final char[] text;
+
+    private final int len;
+
+    private final boolean caseSensitive;
+
+
+    public LiteralPathElement(int pos, char[] literalText, boolean caseSensitive, char separator) {
+        super(pos, separator);
+        this.len = literalText.length;
+        this.caseSensitive = caseSensitive;
+        if (caseSensitive) {
+            this.text = literalText;
+        } else {
+            // Force all the text lower case to make matching faster
+            this.text = new char[literalText.length];
+            for (int i = 0; i < this.len; i++) {
+                this.text[i] = Character.toLowerCase(literalText[i]);
+            }
+        }
+    }
+
+
+    @Override
+    public boolean matches(int pathIndex, MatchingContext matchingContext) {
+        if (pathIndex >= matchingContext.pathLength) {
+            // no more path left to match this element
+            return false;
+        }
+        Element element = matchingContext.pathElements.get(pathIndex);
+        if (!(element instanceof PathSegment)) {
+            return false;
+        }
+        char[] data = ((PathSegment) element).valueToMatchAsChars();
+        if (data.length != this.len) {
+            // Not enough data to match this path element
+            return false;
+        }
+
+        if (this.caseSensitive) {
+            for (int i = 0; i < this.len; i++) {
+                if (data[i] != this.text[i]) {
+                    return false;
+                }
+            }
+        } else {
+            for (int i = 0; i < this.len; i++) {
+                if (Character.toLowerCase(data[i]) != this.text[i]) {
+                    return false;
+                }
+            }
+        }
+
+        pathIndex++;
+        if (isNoMorePattern()) {
+            if (pathIndex == matchingContext.pathLength) {
+                return true;
+            } else {
+                return (matchingContext.isMatchOptionalTrailingSeparator() &&
+                        (pathIndex + 1) == matchingContext.pathLength &&
+                        matchingContext.isSeparator(pathIndex));
+            }
+        } else {
+            return (this.next != null && this.next.matches(pathIndex, matchingContext));
+        }
+    }
+
+    @Override
+    public int getNormalizedLength() {
+        return this.len;
+    }
+
+    @Override
+    public char[] getChars() {
+        return this.text;
+    }
+
+    @Override
+    public boolean isLiteral() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "Literal(" + String.valueOf(this.text) + ")";
+    }
+}
@@ -1,23 +1,393 @@
 package org.springframework.web.util.pattern;
 
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.PathContainer.Element;
+import org.springframework.http.server.PathContainer.PathSegment;
+import org.springframework.http.server.PathContainer.Separator;
 import org.springframework.lang.Nullable;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 
 /**
+ * Representation of a parsed path pattern. Includes a chain of path elements
+ * for fast matching and accumulates computed state for quick comparison of
+ * patterns.
+ * <p>
+ * {@code PathPattern} matches URL paths using the following rules:
+ * <ul>
+ * <li>{@code ?} matches one character</li>
+ * <li>{@code *} matches zero or more characters within a path segment</li>
+ * <li>{@code **} matches zero or more <em>path segments</em> until the end of the path</li>
+ * <li><code>{spring}</code> matches a <em>path segment</em> and captures it as a variable named "spring"</li>
+ * <li><code>{spring:[a-z]+}</code> matches the regexp {@code [a-z]+} as a path variable named "spring"</li>
+ * <li><code>{*spring}</code> matches zero or more <em>path segments</em> until the end of the path
+ * and captures it as a variable named "spring"</li>
+ * </ul>
+ * <p>
+ * Matching walks the element chain over a {@link PathContainer} that was split
+ * into segments once, so no pattern text is tokenized at request time.
+ *
  * @author zhangdd on 2022/6/23
  */
-public class PathPattern implements Comparable<PathPattern>{
+public class PathPattern implements Comparable<PathPattern> {
+
+    private static final PathContainer EMPTY_PATH = PathContainer.parsePath("");
+
+    /**
+     * Comparator that sorts patterns by specificity as follows:
+     * <ol>
+     * <li>Null instances are last.
+     * <li>Catch-all patterns are last.
+     * <li>If both patterns are catch-all, consider the length (longer wins).
+     * <li>Compare wildcard and captured variable count (lower wins).
+     * <li>Consider length (longer wins)
+     * </ol>
+     */
+    public static final Comparator<PathPattern> SPECIFICITY_COMPARATOR =
+            Comparator.nullsLast(
+                    Comparator.<PathPattern>comparingInt(p -> p.isCatchAll() ? 1 : 0)
+                            .thenComparingInt(p -> p.isCatchAll() ? scoreByNormalizedLength(p) : 0)
+                            .thenComparingInt(PathPattern::getScore)
+                            .thenComparingInt(PathPattern::scoreByNormalizedLength)
+            );
+
+
+    /**
+     * The text of the parsed pattern.
+     */
+    private final String patternString;
+
+    /**
+     * The parser used to construct this pattern.
+     */
+    private final PathPatternParser parser;
+
+    /**
+     * If this pattern has no trailing slash, allow candidates to include one and still match successfully.
+     */
+    private final boolean matchOptionalTrailingSeparator;
+
+    /**
+     * Will this match candidates in a case sensitive way? (case sensitivity  at parse time).
+     */
+    private final boolean caseSensitive;
+
+    /**
+     * First path element in the parsed chain of path elements for this pattern.
+     */
+    @Nullable
+    private final PathElement head;
 
+    /**
+     * How many variables are captured in this pattern.
+     */
+    private int capturedVariableCount;
 
+    /**
+     * The normalized length is trying to measure the 'active' part of the pattern. It is computed
+     * by assuming all capture variables have a normalized length of 1. Effectively this means changing
+     * your variable name lengths isn't going to change the length of the active part of the pattern.
+     * Useful when comparing two patterns.
+     */
+    private int normalizedLength;
+
+    /**
+     * Does the pattern end with {*...} or /**.
+     */
+    private boolean catchAll = false;
+
+    /**
+     * Score is used to quickly compare patterns. Different pattern components are given different
+     * weights. A 'lower score' is more specific. Current weights:
+     * <ul>
+     * <li>Captured variables are worth 1
+     * <li>Wildcard is worth 100
+     * </ul>
+     */
+    private int score;
 
 
     PathPattern(String patternText, PathPatternParser parser, @Nullable PathElement head) {
+        this.patternString = patternText;
+        this.parser = parser;
+        this.matchOptionalTrailingSeparator = parser.isMatchOptionalTrailingSeparator();
+        this.caseSensitive = parser.isCaseSensitive();
+        this.head = head;
+
+        // Compute fields for fast comparison
+        PathElement elem = head;
+        while (null != elem) {
+            this.capturedVariableCount += elem.getCaptureCount();
+            this.normalizedLength += elem.getNormalizedLength();
+            this.score += elem.getScore();
+            if (elem instanceof CaptureTheRestPathElement || elem instanceof WildcardTheRestPathElement) {
+                this.catchAll = true;
+            }
+            elem = elem.next;
+        }
+    }
+
+
+    /**
+     * Return the original String that was parsed to create this PathPattern.
+     */
+    public String getPatternString() {
+        return this.patternString;
+    }
+
+    /**
+     * Whether the pattern string contains pattern syntax that would require
+     * use of {@link #matches(PathContainer)}, or if it is a regular String that
+     * could be compared directly to others.
+     */
+    public boolean hasPatternSyntax() {
+        return (this.score > 0 || this.catchAll || this.patternString.indexOf('?') != -1);
     }
 
+    /**
+     * Whether this pattern matches the given path.
+     */
+    public boolean matches(PathContainer pathContainer) {
+        if (null == this.head) {
+            return !hasLength(pathContainer) ||
+                    (this.matchOptionalTrailingSeparator && pathContainerIsJustSeparator(pathContainer));
+        } else if (!hasLength(pathContainer)) {
+            if (this.head instanceof WildcardTheRestPathElement || this.head instanceof CaptureTheRestPathElement) {
+                pathContainer = EMPTY_PATH; // Will allow CaptureTheRest to bind the variable to empty
+            } else {
+                return false;
+            }
+        }
+        MatchingContext matchingContext = new MatchingContext(pathContainer, false);
+        return this.head.matches(0, matchingContext);
+    }
+
+    /**
+     * Match this pattern to the given URI path and return extracted URI
+     * template variables.
+     *
+     * @return info object with the extracted variables, or {@code null} for no match
+     */
+    @Nullable
+    public PathMatchInfo matchAndExtract(PathContainer pathContainer) {
+        if (null == this.head) {
+            return (hasLength(pathContainer) &&
+                    !(this.matchOptionalTrailingSeparator && pathContainerIsJustSeparator(pathContainer)) ?
+                    null : PathMatchInfo.EMPTY);
+        } else if (!hasLength(pathContainer)) {
+            if (this.head instanceof WildcardTheRestPathElement || this.head instanceof CaptureTheRestPathElement) {
+                pathContainer = EMPTY_PATH; // Will allow CaptureTheRest to bind the variable to empty
+            } else {
+                return null;
+            }
+        }
+        MatchingContext matchingContext = new MatchingContext(pathContainer, true);
+        return this.head.matches(0, matchingContext) ? matchingContext.getPathMatchResult() : null;
+    }
+
+    /**
+     * Combine this pattern with another, e.g. a type-level with a method-level
+     * pattern. If one of them is empty the result is the other.
+     * <pre class="code">
+     * /hotels + /booking   => /hotels/booking
+     * /hotels/* + /booking => /hotels/booking
+     * /* + /hotel          => /hotel
+     * </pre>
+     */
+    public PathPattern combine(PathPattern pattern2) {
+        if (!StringUtils.hasLength(this.patternString)) {
+            return (StringUtils.hasLength(pattern2.patternString) ? pattern2 : this);
+        } else if (!StringUtils.hasLength(pattern2.patternString)) {
+            return this;
+        }
+        // /* + /hotel => /hotel, but /{foo} + /bar => /{foo}/bar
+        if (!this.patternString.equals(pattern2.patternString) && this.capturedVariableCount == 0 &&
+                matches(PathContainer.parsePath(pattern2.patternString))) {
+            return pattern2;
+        }
+        String path1 = this.patternString;
+        if (path1.endsWith("/*")) {
+            path1 = path1.substring(0, path1.length() - 2);
+        }
+        return this.parser.parse(concat(path1, pattern2.patternString));
+    }
+
+    private static String concat(String path1, String path2) {
+        boolean path1EndsWithSeparator = path1.endsWith("/");
+        boolean path2StartsWithSeparator = path2.startsWith("/");
+        if (path1EndsWithSeparator && path2StartsWithSeparator) {
+            return path1 + path2.substring(1);
+        } else if (path1EndsWithSeparator || path2StartsWithSeparator) {
+            return path1 + path2;
+        } else {
+            return path1 + "/" + path2;
+        }
+    }
+
+    int getScore() {
+        return this.score;
+    }
+
+    int getCapturedVariableCount() {
+        return this.capturedVariableCount;
+    }
+
+    int getNormalizedLength() {
+        return this.normalizedLength;
+    }
+
+    boolean isCatchAll() {
+        return this.catchAll;
+    }
+
+    /**
+     * Compare this pattern with a supplied pattern: return -1,0,+1 if this pattern
+     * is more specific, the same or less specific than the supplied pattern.
+     * Patterns that are equally specific are ordered by their text, so that the
+     * order is consistent with {@link #equals(Object)}.
+     */
+    @Override
+    public int compareTo(@Nullable PathPattern otherPattern) {
+        int result = SPECIFICITY_COMPARATOR.compare(this, otherPattern);
+        return (result == 0 && null != otherPattern ?
+                this.patternString.compareTo(otherPattern.patternString) : result);
+    }
 
+    @Override
+    public boolean equals(@Nullable Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PathPattern)) {
+            return false;
+        }
+        PathPattern otherPattern = (PathPattern) other;
+        return (this.patternString.equals(otherPattern.getPatternString()) &&
+                this.caseSensitive == otherPattern.caseSensitive &&
+                this.matchOptionalTrailingSeparator == otherPattern.matchOptionalTrailingSeparator);
+    }
 
+    @Override
+    public int hashCode() {
+        return (this.patternString.hashCode() + (this.caseSensitive ? 17 : 0) +
+                (this.matchOptionalTrailingSeparator ? 31 : 0));
+    }
 
     @Override
-    public int compareTo(PathPattern o) {
-        return 0;
+    public String toString() {
+        return this.patternString;
+    }
+
+
+    private static int scoreByNormalizedLength(PathPattern pattern) {
+        return -pattern.getNormalizedLength();
+    }
+
+    /**
+     * Return true if the container is not null and has more than zero elements.
+     */
+    private boolean hasLength(@Nullable PathContainer container) {
+        return null != container && container.elements().size() > 0;
+    }
+
+    private boolean pathContainerIsJustSeparator(PathContainer pathContainer) {
+        return pathContainer.value().length() == 1 &&
+                pathContainer.value().charAt(0) == '/';
+    }
+
+
+    /**
+     * Holder for URI variables extracted from matching a pattern to a path.
+     */
+    public static class PathMatchInfo {
+
+        private static final PathMatchInfo EMPTY = new PathMatchInfo(Collections.emptyMap());
+
+        private final Map<String, String> uriVariables;
+
+        PathMatchInfo(Map<String, String> uriVars) {
+            this.uriVariables = Collections.unmodifiableMap(uriVars);
+        }
+
+        /**
+         * Return the extracted URI variables.
+         */
+        public Map<String, String> getUriVariables() {
+            return this.uriVariables;
+        }
+
+        @Override
+        public String toString() {
+            return "PathMatchInfo[uriVariables=" + this.uriVariables + "]";
+        }
+    }
+
+
+    /**
+     * Encapsulates context when attempting a match. Includes some fixed state like the
+     * candidate currently being considered for a match but also some accumulators for
+     * extracted variables.
+     */
+    class MatchingContext {
+
+        final PathContainer candidate;
+
+        final List<Element> pathElements;
+
+        final int pathLength;
+
+        @Nullable
+        private Map<String, String> extractedUriVariables;
+
+        boolean extractingVariables;
+
+        public MatchingContext(PathContainer pathContainer, boolean extractVariables) {
+            this.candidate = pathContainer;
+            this.pathElements = pathContainer.elements();
+            this.pathLength = this.pathElements.size();
+            this.extractingVariables = extractVariables;
+        }
+
+        public boolean isMatchOptionalTrailingSeparator() {
+            return matchOptionalTrailingSeparator;
+        }
+
+        public void set(String key, String value) {
+            if (null == this.extractedUriVariables) {
+                this.extractedUriVariables = CollectionUtils.newLinkedHashMap(capturedVariableCount);
+            }
+            this.extractedUriVariables.put(key, value);
+        }
+
+        public PathMatchInfo getPathMatchResult() {
+            if (null == this.extractedUriVariables) {
+                return PathMatchInfo.EMPTY;
+            } else {
+                return new PathMatchInfo(this.extractedUriVariables);
+            }
+        }
+
+        /**
+         * Return if element at specified index is a separator.
+         */
+        boolean isSeparator(int pathIndex) {
+            return this.pathElements.get(pathIndex) instanceof Separator;
+        }
+
+        /**
+         * Return the decoded value of the specified element.
+         */
+        String pathElementValue(int pathIndex) {
+            Element element = (pathIndex < this.pathLength) ? this.pathElements.get(pathIndex) : null;
+            if (element instanceof PathSegment) {
+                return ((PathSegment) element).valueToMatch();
+            }
+            return "";
+        }
     }
 }
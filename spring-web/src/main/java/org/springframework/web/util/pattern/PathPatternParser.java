@@ -13,7 +13,58 @@ package org.springframework.web.util.pattern;
  */
 public class PathPatternParser {
 
-    public PathPattern parse(String pathPattern){
+    private boolean matchOptionalTrailingSeparator = true;
+
+    private boolean caseSensitive = true;
+
+
+    /**
+     * Whether a {@link PathPattern} produced by this parser should
+     * automatically match request paths with a trailing slash.
+     * <p>If set to {@code true} a {@code PathPattern} without a trailing slash
+     * will also match request paths with a trailing slash. If set to
+     * {@code false} a {@code PathPattern} will only match request paths with
+     * a trailing slash.
+     * <p>The default is {@code true}.
+     */
+    public void setMatchOptionalTrailingSeparator(boolean matchOptionalTrailingSeparator) {
+        this.matchOptionalTrailingSeparator = matchOptionalTrailingSeparator;
+    }
+
+    /**
+     * Whether optional trailing slashing match is enabled.
+     */
+    public boolean isMatchOptionalTrailingSeparator() {
+        return this.matchOptionalTrailingSeparator;
+    }
+
+    /**
+     * Whether path pattern matching should be case-sensitive.
+     * <p>The default is {@code true}.
+     */
+    public void setCaseSensitive(boolean caseSensitive) {
+        this.caseSensitive = caseSensitive;
+    }
+
+    /**
+     * Whether case-sensitive pattern matching is enabled.
+     */
+    public boolean isCaseSensitive() {
+        return this.caseSensitive;
+    }
+
+    /**
+     * Process the path pattern content, a character at a time, breaking it into
+     * path elements around separator boundaries and verifying the structure at each
+     * stage. Produces a PathPattern object that can be used for fast matching
+     * against paths. Each invocation of this method delegates to a new instance of
+     * the {@link InternalPathPatternParser} because that class is not thread-safe.
+     *
+     * @param pathPattern the input path pattern, e.g. /project/{name}
+     * @return a PathPattern for quickly matching paths against request paths
+     * @throws PatternParseException in case of parse errors
+     */
+    public PathPattern parse(String pathPattern) throws PatternParseException {
         return new InternalPathPatternParser(this).parse(pathPattern);
     }
 }
@@ -0,0 +1,55 @@
+package org.springframework.web.util.pattern;
+
+import org.springframework.web.util.pattern.PathPattern.MatchingContext;
+
+/**
+ * A separator path element. In the pattern '/foo/bar' the two occurrences
+ * of '/' will be represented by a SeparatorPathElement (if the default
+ * separator of '/' is being used).
+ *
+ * @author zhangdd on 2022/7/16
+ */
+class SeparatorPathElement extends PathElement {
+
+    SeparatorPathElement(int pos, char separator) {
+        super(pos, separator);
+    }
+
+
+    /**
+     * Matching a separator is easy, basically the character at candidateIndex
+     * must be the separator.
+     */
+    @Override
+    public boolean matches(int pathIndex, MatchingContext matchingContext) {
+        if (pathIndex < matchingContext.pathLength && matchingContext.isSeparator(pathIndex)) {
+            if (isNoMorePattern()) {
+                return (pathIndex + 1 == matchingContext.pathLength);
+            } else {
+                pathIndex++;
+                return (this.next != null && this.next.matches(pathIndex, matchingContext));
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getNormalizedLength() {
+        return 1;
+    }
+
+    @Override
+    public char[] getChars() {
+        return new char[]{this.separator};
+    }
+
+    @Override
+    public boolean isLiteral() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "Separator(" + this.separator + ")";
+    }
+}
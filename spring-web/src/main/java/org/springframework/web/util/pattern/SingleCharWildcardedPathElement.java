@@ -0,0 +1,107 @@
+package org.springframework.web.util.pattern;
+
+import org.springframework.http.server.PathContainer.Element;
+import org.springframework.http.server.PathContainer.PathSegment;
+import org.springframework.web.util.pattern.PathPattern.MatchingContext;
+
+/**
+ * A literal path element that does includes the single character wildcard '?' one
+ * or more times (to basically many any character at that position).
+ *
+ * @author zhangdd on 2022/7/16
+ */
+class SingleCharWildcardedPathElement extends PathElement {
+
+    private final char[] text;
+
+    private final int len;
+
+    private final int questionMarkCount;
+
+    private final boolean caseSensitive;
+
+
+    public SingleCharWildcardedPathElement(
+            int pos, char[] literalText, int questionMarkCount, boolean caseSensitive, char separator) {
+        super(pos, separator);
+        this.len = literalText.length;
+        this.questionMarkCount = questionMarkCount;
+        this.caseSensitive = caseSensitive;
+        if (caseSensitive) {
+            this.text = literalText;
+        } else {
+            this.text = new char[literalText.length];
+            for (int i = 0; i < this.len; i++) {
+                this.text[i] = Character.toLowerCase(literalText[i]);
+            }
+        }
+    }
+
+
+    @Override
+    public boolean matches(int pathIndex, MatchingContext matchingContext) {
+        if (pathIndex >= matchingContext.pathLength) {
+            // no more path left to match this element
+            return false;
+        }
+
+        Element element = matchingContext.pathElements.get(pathIndex);
+        if (!(element instanceof PathSegment)) {
+            return false;
+        }
+        char[] data = ((PathSegment) element).valueToMatchAsChars();
+        if (data.length != this.len) {
+            // Not enough data to match this path element
+            return false;
+        }
+
+        if (this.caseSensitive) {
+            for (int i = 0; i < this.len; i++) {
+                char ch = this.text[i];
+                if ((ch != '?') && (ch != data[i])) {
+                    return false;
+                }
+            }
+        } else {
+            for (int i = 0; i < this.len; i++) {
+                char ch = this.text[i];
+                if ((ch != '?') && (ch != Character.toLowerCase(data[i]))) {
+                    return false;
+                }
+            }
+        }
+
+        pathIndex++;
+        if (isNoMorePattern()) {
+            if (pathIndex == matchingContext.pathLength) {
+                return true;
+            } else {
+                return (matchingContext.isMatchOptionalTrailingSeparator() &&
+                        (pathIndex + 1) == matchingContext.pathLength &&
+                        matchingContext.isSeparator(pathIndex));
+            }
+        } else {
+            return (this.next != null && this.next.matches(pathIndex, matchingContext));
+        }
+    }
+
+    @Override
+    public int getWildcardCount() {
+        return this.questionMarkCount;
+    }
+
+    @Override
+    public int getNormalizedLength() {
+        return this.len;
+    }
+
+    @Override
+    public char[] getChars() {
+        return this.text;
+    }
+
+    @Override
+    public String toString() {
+        return "SingleCharWildcarded(" + String.valueOf(this.text) + ")";
+    }
+}
@@ -0,0 +1,83 @@
+package org.springframework.web.util.pattern;
+
+import org.springframework.http.server.PathContainer.Element;
+import org.springframework.http.server.PathContainer.PathSegment;
+import org.springframework.web.util.pattern.PathPattern.MatchingContext;
+
+/**
+ * A wildcard path element. In the pattern '/foo/&ast;/goo' the * is
+ * represented by a WildcardPathElement. Within a path it matches at least
+ * one character but at the end of a path it can match zero characters.
+ *
+ * @author zhangdd on 2022/7/16
+ */
+class WildcardPathElement extends PathElement {
+
+    public WildcardPathElement(int pos, char separator) {
+        super(pos, separator);
+    }
+
+
+    /**
+     * Matching on a WildcardPathElement is quite straight forward. Scan the
+     * candidate from the candidateIndex onwards for the next separator or the end of the
+     * candidate.
+     */
+    @Override
+    public boolean matches(int pathIndex, MatchingContext matchingContext) {
+        String segmentData = null;
+        // Assert if it exists it is a segment
+        if (pathIndex < matchingContext.pathLength) {
+            Element element = matchingContext.pathElements.get(pathIndex);
+            if (!(element instanceof PathSegment)) {
+                // Should not match a separator
+                return false;
+            }
+            segmentData = ((PathSegment) element).valueToMatch();
+            pathIndex++;
+        }
+
+        if (isNoMorePattern()) {
+            if (pathIndex == matchingContext.pathLength) {
+                // and the path data has run out too
+                return true;
+            } else {
+                return (matchingContext.isMatchOptionalTrailingSeparator() &&  // if optional slash is on...
+                        segmentData != null && segmentData.length() > 0 &&  // and there is at least one character to match the *...
+                        (pathIndex + 1) == matchingContext.pathLength &&   // and the next path element is the end
+                        matchingContext.isSeparator(pathIndex));  // and the final element is a separator
+            }
+        } else {
+            // Within a path (e.g. /aa/*/bb) there must be at least one character to match the wildcard
+            if (segmentData == null || segmentData.length() == 0) {
+                return false;
+            }
+            return (this.next != null && this.next.matches(pathIndex, matchingContext));
+        }
+    }
+
+    @Override
+    public int getNormalizedLength() {
+        return 1;
+    }
+
+    @Override
+    public char[] getChars() {
+        return new char[]{'*'};
+    }
+
+    @Override
+    public int getWildcardCount() {
+        return 1;
+    }
+
+    @Override
+    public int getScore() {
+        return WILDCARD_WEIGHT;
+    }
+
+    @Override
+    public String toString() {
+        return "Wildcard(*)";
+    }
+}
@@ -0,0 +1,43 @@
+package org.springframework.web.util.pattern;
+
+import org.springframework.web.util.pattern.PathPattern.MatchingContext;
+
+/**
+ * A path element representing wildcarding the rest of a path. In the pattern
+ * '/foo/**' the /** is represented as a {@link WildcardTheRestPathElement}.
+ *
+ * @author zhangdd on 2022/7/16
+ */
+class WildcardTheRestPathElement extends PathElement {
+
+    WildcardTheRestPathElement(int pos, char separator) {
+        super(pos, separator);
+    }
+
+
+    @Override
+    public boolean matches(int pathIndex, MatchingContext matchingContext) {
+        // If there is more data, it must start with the separator
+        return (pathIndex >= matchingContext.pathLength || matchingContext.isSeparator(pathIndex));
+    }
+
+    @Override
+    public int getNormalizedLength() {
+        return 1;
+    }
+
+    @Override
+    public char[] getChars() {
+        return (this.separator + "**").toCharArray();
+    }
+
+    @Override
+    public int getWildcardCount() {
+        return 1;
+    }
+
+    @Override
+    public String toString() {
+        return "WildcardTheRest(" + this.separator + "**)";
+    }
+}
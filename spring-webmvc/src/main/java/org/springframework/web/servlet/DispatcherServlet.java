@@ -3,7 +3,15 @@ package org.springframework.web.servlet;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.HttpMediaTypeException;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -67,17 +75,51 @@ public class DispatcherServlet extends FrameworkServlet {
 
         HttpServletRequest processedRequest = request;
 
+        try {
+            HandlerExecutionChain mappedHandler = getHandler(processedRequest);
+            if (null == mappedHandler) {
+                noHandlerFound(processedRequest, response);
+                return;
+            }
 
-        HandlerExecutionChain mappedHandler = getHandler(processedRequest);
-        if (null == mappedHandler) {
-            noHandlerFound(processedRequest, response);
-            return;
-        }
-
-        HandlerAdapter ha = getHandlerAdapter(mappedHandler.getHandler());
+            HandlerAdapter ha = getHandlerAdapter(mappedHandler.getHandler());
 
-        ModelAndView mv = ha.handle(processedRequest, response, mappedHandler.getHandler());
+            ModelAndView mv = ha.handle(processedRequest, response, mappedHandler.getHandler());
+        } catch (HttpRequestMethodNotSupportedException | HttpMediaTypeException ex) {
+            processHandlerException(processedRequest, response, ex);
+        }
+    }
 
+    /**
+     * Send the error status for an exception raised because the request does
+     * not fit the mappings found for its path: 405 with an 'Allow' header for
+     * an unsupported request method, 415 with an 'Accept' header for an
+     * unsupported 'Content-Type', and 406 if no acceptable media type can be
+     * produced. The exception is raised again if the response is already
+     * committed.
+     */
+    protected void processHandlerException(HttpServletRequest request, HttpServletResponse response,
+                                           ServletException ex) throws Exception {
+        if (response.isCommitted()) {
+            throw ex;
+        }
+        if (ex instanceof HttpRequestMethodNotSupportedException) {
+            String[] supportedMethods = ((HttpRequestMethodNotSupportedException) ex).getSupportedMethods();
+            if (!ObjectUtils.isEmpty(supportedMethods)) {
+                response.setHeader(HttpHeaders.ALLOW, StringUtils.arrayToDelimitedString(supportedMethods, ", "));
+            }
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, ex.getMessage());
+        } else if (ex instanceof HttpMediaTypeNotSupportedException) {
+            List<MediaType> mediaTypes = ((HttpMediaTypeNotSupportedException) ex).getSupportedMediaTypes();
+            if (!mediaTypes.isEmpty()) {
+                response.setHeader(HttpHeaders.ACCEPT, StringUtils.collectionToDelimitedString(mediaTypes, ", "));
+            }
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, ex.getMessage());
+        } else if (ex instanceof HttpMediaTypeNotAcceptableException) {
+            response.sendError(HttpServletResponse.SC_NOT_ACCEPTABLE, ex.getMessage());
+        } else {
+            throw ex;
+        }
     }
 
     /**
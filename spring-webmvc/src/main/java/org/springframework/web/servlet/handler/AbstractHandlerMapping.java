@@ -6,6 +6,7 @@ import org.springframework.util.PathMatcher;
 import org.springframework.web.context.support.WebApplicationObjectSupport;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
 import org.springframework.web.util.pattern.PathPatternParser;
 
@@ -42,6 +43,14 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
         return patternParser;
     }
 
+    /**
+     * Return "true" if this {@code HandlerMapping} has been
+     * {@link #setPatternParser enabled} to use parsed {@code PathPattern}s.
+     */
+    public boolean usesPathPatterns() {
+        return null != getPatternParser();
+    }
+
     public UrlPathHelper getUrlPathHelper() {
         return urlPathHelper;
     }
@@ -63,9 +72,17 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 
     /**
      * Initialize the path to use for request mapping.
+     * <p>
+     * When parsed patterns are {@link #usesPathPatterns() enabled} the lookup
+     * path is also parsed into a {@code PathContainer} once and cached via
+     * {@link ServletRequestPathUtils#parseAndCache}.
      */
     protected String initLookupPath(HttpServletRequest request) {
-        return getUrlPathHelper().resolvedAndCacheLookupPath(request);
+        String lookupPath = getUrlPathHelper().resolvedAndCacheLookupPath(request);
+        if (usesPathPatterns()) {
+            ServletRequestPathUtils.parseAndCache(request, lookupPath);
+        }
+        return lookupPath;
     }
 
     /**
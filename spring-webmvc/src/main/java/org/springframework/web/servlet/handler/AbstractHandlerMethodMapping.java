@@ -2,11 +2,11 @@ package org.springframework.web.servlet.handler;
 
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationContext;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.HttpMethod;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
 
@@ -14,7 +14,7 @@ import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @author zhangdd on 2022/6/15
@@ -45,6 +45,16 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
      */
     private static final String SCOPED_TARGET_NAME_PREFIX = "scopedTarget.";
 
+    /**
+     * One route table per {@link HttpMethod}, and one for all other methods.
+     */
+    private static final int ROUTE_TABLE_COUNT = HttpMethod.values().length + 1;
+
+    /**
+     * Mask of a mapping that matches every HTTP method.
+     */
+    protected static final int ALL_METHODS_MASK = (1 << ROUTE_TABLE_COUNT) - 1;
+
 
     @Nullable
     private HandlerMethodMappingNamingStrategy<T> namingStrategy;
@@ -125,12 +135,61 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
         }
     }
 
+    /**
+     * Register the given mapping at runtime, e.g. for an endpoint that is only
+     * enabled for some tenants. The route index is updated incrementally and
+     * requests in flight are not affected. A mapping that is registered already
+     * for the same handler method is replaced.
+     *
+     * @param mapping the mapping for the handler method
+     * @param handler the handler, or the name of the handler bean
+     * @param method  the method
+     */
+    public void registerMapping(T mapping, Object handler, Method method) {
+        if (logger.isTraceEnabled()) {
+            logger.trace("Register \"" + mapping + "\" to " + method.toGenericString());
+        }
+        handleMappingRemoved(this.mappingRegistry.register(mapping, handler, method));
+    }
+
+    /**
+     * Unregister the given mapping at runtime. Requests that have already
+     * looked up its handler method complete normally.
+     *
+     * @param mapping the mapping to unregister
+     */
+    public void unregisterMapping(T mapping) {
+        if (logger.isTraceEnabled()) {
+            logger.trace("Unregister mapping \"" + mapping + "\"");
+        }
+        handleMappingRemoved(this.mappingRegistry.unregister(mapping));
+    }
+
     /**
      * Register a handler method and its unique mapping, Invoked at startup for each
      * detected handler method.
      */
     protected void registerHandlerMethod(Object handler, Method method, T mapping) {
-        this.mappingRegistry.register(mapping, handler, method);
+        handleMappingRemoved(this.mappingRegistry.register(mapping, handler, method));
+    }
+
+    private void handleMappingRemoved(@Nullable MappingRegistration<T> registration) {
+        if (null != registration) {
+            handleMappingRemoved(registration.getMapping(), registration.getHandlerMethod());
+        }
+    }
+
+    /**
+     * Invoked after a mapping has been unregistered, or replaced by the
+     * registration of an equal mapping. The default implementation publishes a
+     * {@link HandlerMethodUnregisteredEvent} so that state kept per handler
+     * method elsewhere, e.g. by the handler adapter, can be dropped.
+     */
+    protected void handleMappingRemoved(T mapping, HandlerMethod handlerMethod) {
+        ApplicationContext context = getApplicationContext();
+        if (null != context) {
+            context.publishEvent(new HandlerMethodUnregisteredEvent(this, handlerMethod));
+        }
     }
 
     protected HandlerMethod createHandlerMethod(Object handler, Method method) {
@@ -156,35 +215,61 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
     /**
      * Look up the best-matching handler method for the current request. If multiple
      * matches are found, the best match is selected.
+     * <p>
+     * All lookups for a request are read from one registry snapshot, without locking,
+     * and only from the route table for the HTTP method of the request.
+     * <p>
+     * Candidate buckets are sorted by {@link #getMappingComparator()} when mappings
+     * are registered. A registered mapping ranks no lower than any match it
+     * yields, so scanning stops as soon as the next candidate cannot outrank the
+     * best match found so far.
      */
     @Nullable
     protected HandlerMethod lookupHandlerMethod(String lookupPath, HttpServletRequest request) throws Exception {
-        List<Match> matches = new ArrayList<>();
-        List<T> directPathMatches = this.mappingRegistry.getMappingsByDirectPath(lookupPath);
+        Snapshot<T> snapshot = this.mappingRegistry.getSnapshot();
+        RouteTable<T> routeTable = snapshot.getRouteTable(request);
+        Match bestMatch = null;
+        List<T> directPathMatches = routeTable.getMappingsByDirectPath(lookupPath);
         if (null != directPathMatches) {
-            addMatchingMapping(directPathMatches, matches, request);
+            bestMatch = getBestMatch(snapshot, directPathMatches, null, request);
         }
-        if (matches.isEmpty()) {
-            addMatchingMapping(this.mappingRegistry.getRegistration().keySet(), matches, request);
+        if (null == bestMatch) {
+            for (List<T> candidates : routeTable.getMappingsByPath(lookupPath)) {
+                bestMatch = getBestMatch(snapshot, candidates, bestMatch, request);
+            }
         }
-        if (!matches.isEmpty()) {
-            Match bestMatch = matches.get(0);
-
+        if (null != bestMatch) {
             request.setAttribute(BEST_MATCHING_HANDLER_ATTRIBUTE, bestMatch.getHandlerMethod());
             handleMatch(bestMatch.mapping, lookupPath, request);
             return bestMatch.getHandlerMethod();
         } else {
-            return handleNoMatch(this.mappingRegistry.getRegistration().keySet(), lookupPath, request);
+            return handleNoMatch(snapshot.getMappingsForPath(lookupPath), lookupPath, request);
         }
     }
 
-    private void addMatchingMapping(Collection<T> mappings, List<Match> matches, HttpServletRequest request) {
-        for (T mapping : mappings) {
+    /**
+     * Return the best of the current best match and the matches within the given
+     * sorted candidates. Matches are compared by the mapping matched for the
+     * request, e.g. by the pattern that actually matched, while a candidate is
+     * skipped, together with the rest of the bucket, as soon as its registered
+     * mapping does not rank before the current best match.
+     */
+    @Nullable
+    private Match getBestMatch(Snapshot<T> snapshot, List<T> candidates, @Nullable Match currentBest,
+                               HttpServletRequest request) {
+        Comparator<T> comparator = getMappingComparator();
+        Match bestMatch = currentBest;
+        for (T mapping : candidates) {
+            if (null != bestMatch && (null == comparator || comparator.compare(mapping, bestMatch.mapping) >= 0)) {
+                // Remaining candidates in this bucket cannot be more specific
+                return bestMatch;
+            }
             T match = getMatchingMapping(mapping, request);
-            if (null != match) {
-                matches.add(new Match(match, this.mappingRegistry.getRegistration().get(mapping)));
+            if (null != match && (null == bestMatch || comparator.compare(match, bestMatch.mapping) < 0)) {
+                bestMatch = new Match(match, snapshot.getRegistration().get(mapping));
             }
         }
+        return bestMatch;
     }
 
     protected void handleMatch(T mapping, String lookupPath, HttpServletRequest request) {
@@ -192,14 +277,49 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
     }
 
     /**
-     * Invoke when no matching is not found.
+     * Invoked when no matching mapping is found.
+     *
+     * @param mappings the mappings registered for any HTTP method whose paths
+     * may match the lookup path, as narrowed down by the route index, so that
+     * e.g. a mapping for another HTTP method can be reported
      */
     @Nullable
-    protected HandlerMethod handleNoMatch(Set<T> mapping, String lookupPath, HttpServletRequest request)
+    protected HandlerMethod handleNoMatch(Set<T> mappings, String lookupPath, HttpServletRequest request)
             throws Exception {
         return null;
     }
 
+    /**
+     * Return a comparator for sorting mappings by specificity, most specific
+     * first. It sorts the registered mappings, and compares them with the
+     * mappings returned by {@link #getMatchingMapping}, so it must not depend on
+     * request state, and a registered mapping must not rank after any mapping
+     * matched from it.
+     *
+     * @return the comparator, or {@code null} to keep the registration order
+     */
+    @Nullable
+    protected Comparator<T> getMappingComparator() {
+        return null;
+    }
+
+    /**
+     * Return the bitmask of the HTTP methods the given mapping may match, which
+     * decides the route tables it is registered in. Bit {@code i} stands for the
+     * {@link HttpMethod} with ordinal {@code i}, and the bit after the last one
+     * for any other method.
+     * <p>
+     * By default a mapping is registered for all methods.
+     */
+    protected int getMappingMethodMask(T mapping) {
+        return ALL_METHODS_MASK;
+    }
+
+    /**
+     * Extract and return the URL paths contained in the supplied mapping. They are
+     * used to build the route index, mappings without paths are checked for every
+     * request.
+     */
     protected Set<String> getMappingPathPatterns(T mapping) {
         return Collections.emptySet();
     }
@@ -216,58 +336,140 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
         return urls;
     }
 
+    /**
+     * A registry that maintains all mappings to handler methods and the
+     * lookups built from them.
+     * <p>
+     * The lookups are held in an immutable {@link Snapshot} published through a
+     * volatile reference. Writers build a new snapshot from the current one under
+     * a lock and swap it in, so request-time reads take no lock and always see
+     * a consistent set of mappings, even while mappings are registered or
+     * unregistered at runtime.
+     */
     class MappingRegistry {
 
-        private final Map<T, MappingRegistration<T>> registry = new HashMap<>();
-
-        private final MultiValueMap<String, T> pathLookup = new LinkedMultiValueMap<>();
+        private volatile Snapshot<T> snapshot = Snapshot.empty();
 
         private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
+        private final ReentrantLock writeLock = new ReentrantLock();
 
-        private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
-
-        public Map<T, MappingRegistration<T>> getRegistration() {
-            return registry;
+        /**
+         * Return the current snapshot. Callers that read more than one lookup
+         * for a request should obtain the snapshot once and read from it.
+         */
+        public Snapshot<T> getSnapshot() {
+            return this.snapshot;
         }
 
-        @Nullable
-        public List<T> getMappingsByDirectPath(String urlPath) {
-            return this.pathLookup.get(urlPath);
+        public Map<T, MappingRegistration<T>> getRegistration() {
+            return this.snapshot.registry;
         }
 
 
-        public void register(T mapping, Object handler, Method method) {
-            this.readWriteLock.writeLock().lock();
-
+        /**
+         * Register the given mapping.
+         *
+         * @return the registration replaced by this one, if any
+         */
+        @Nullable
+        public MappingRegistration<T> register(T mapping, Object handler, Method method) {
+            this.writeLock.lock();
             try {
+                Snapshot<T> current = this.snapshot;
                 HandlerMethod handlerMethod = createHandlerMethod(handler, method);
-                validateMethodMapping(handlerMethod, mapping);
+                validateMethodMapping(current, handlerMethod, mapping);
+                MappingRegistration<T> existing = current.registry.get(mapping);
+                if (null != existing) {
+                    current = without(current, existing);
+                }
+
                 Set<String> directPaths = AbstractHandlerMethodMapping.this.getDirectPaths(mapping);
-                for (String path : directPaths) {
-                    this.pathLookup.add(path, mapping);
+                Set<String> patterns = getMappingPathPatterns(mapping);
+                Comparator<T> comparator = getMappingComparator();
+                RouteTable<T>[] routeTables = current.routeTables.clone();
+                int methodMask = getMappingMethodMask(mapping);
+                for (int i = 0; i < routeTables.length; i++) {
+                    if ((methodMask & (1 << i)) != 0) {
+                        routeTables[i] = routeTables[i].add(mapping, directPaths, patterns, comparator);
+                    }
                 }
+
                 String name = null;
                 if (null != getNamingStrategy()) {
                     name = getNamingStrategy().getName(handlerMethod, mapping);
                     addMappingName(name, handlerMethod);
                 }
+                Map<T, MappingRegistration<T>> registry = new HashMap<>(current.registry);
+                registry.put(mapping, new MappingRegistration<>(mapping, handlerMethod, directPaths, name, false));
 
-                this.registry.put(mapping, new MappingRegistration<>(mapping, handlerMethod, directPaths, name, false));
+                this.snapshot = new Snapshot<>(Collections.unmodifiableMap(registry), routeTables);
+                return existing;
             } finally {
-                this.readWriteLock.writeLock().unlock();
+                this.writeLock.unlock();
             }
+        }
 
+        /**
+         * Unregister the given mapping.
+         *
+         * @return the removed registration, or {@code null} if the mapping was
+         * not registered
+         */
+        @Nullable
+        public MappingRegistration<T> unregister(T mapping) {
+            this.writeLock.lock();
+            try {
+                Snapshot<T> current = this.snapshot;
+                MappingRegistration<T> registration = current.registry.get(mapping);
+                if (null != registration) {
+                    this.snapshot = without(current, registration);
+                }
+                return registration;
+            } finally {
+                this.writeLock.unlock();
+            }
         }
 
-        private void validateMethodMapping(HandlerMethod handlerMethod, T mapping) {
-            MappingRegistration<T> registration = this.registry.get(mapping);
+        /**
+         * Return a copy of the given snapshot without the given registration,
+         * updating only the route tables and lookups that contain its mapping.
+         */
+        private Snapshot<T> without(Snapshot<T> current, MappingRegistration<T> registration) {
+            T mapping = registration.getMapping();
+            Set<String> patterns = getMappingPathPatterns(mapping);
+            RouteTable<T>[] routeTables = current.routeTables.clone();
+            int methodMask = getMappingMethodMask(mapping);
+            for (int i = 0; i < routeTables.length; i++) {
+                if ((methodMask & (1 << i)) != 0) {
+                    routeTables[i] = routeTables[i].remove(mapping, registration.getDirectPaths(), patterns);
+                }
+            }
+            if (null != registration.getMappingName()) {
+                removeMappingName(registration);
+            }
+            Map<T, MappingRegistration<T>> registry = new HashMap<>(current.registry);
+            registry.remove(mapping);
+            return new Snapshot<>(Collections.unmodifiableMap(registry), routeTables);
+        }
+
+        private void validateMethodMapping(Snapshot<T> current, HandlerMethod handlerMethod, T mapping) {
+            MappingRegistration<T> registration = current.registry.get(mapping);
             HandlerMethod existingHandlerMethod = null != registration ? registration.getHandlerMethod() : null;
-            if (null != existingHandlerMethod && !existingHandlerMethod.equals(handlerMethod)) {
+            if (null != existingHandlerMethod && !isSameHandlerMethod(existingHandlerMethod, handlerMethod)) {
                 throw new IllegalStateException("Ambiguous mapping. Cannot map '" + handlerMethod.getBean() + "' method \n" + handlerMethod + "\nto " + mapping + ": There is already '" + existingHandlerMethod.getBean() + "' bean method\n" + existingHandlerMethod + " mapped.");
             }
         }
 
+        /**
+         * Whether both handler methods invoke the same method on the same handler,
+         * since a new instance is created for every registration.
+         */
+        private boolean isSameHandlerMethod(HandlerMethod existing, HandlerMethod handlerMethod) {
+            return (existing.getBean().equals(handlerMethod.getBean()) &&
+                    existing.getMethod().equals(handlerMethod.getMethod()));
+        }
+
         private void addMappingName(String name, HandlerMethod handlerMethod) {
             List<HandlerMethod> oldList = this.nameLookup.get(name);
             if (null == oldList) {
@@ -283,6 +485,164 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
             newList.add(handlerMethod);
             this.nameLookup.put(name, newList);
         }
+
+        private void removeMappingName(MappingRegistration<T> registration) {
+            String name = registration.getMappingName();
+            List<HandlerMethod> oldList = this.nameLookup.get(name);
+            if (null == oldList) {
+                return;
+            }
+            List<HandlerMethod> newList = new ArrayList<>(oldList);
+            newList.remove(registration.getHandlerMethod());
+            if (newList.isEmpty()) {
+                this.nameLookup.remove(name);
+            } else {
+                this.nameLookup.put(name, newList);
+            }
+        }
+    }
+
+    /**
+     * Immutable state of the {@link MappingRegistry} at one point in time, with
+     * one {@link RouteTable} per HTTP method.
+     */
+    static final class Snapshot<T> {
+
+        private static final Snapshot<?> EMPTY;
+
+        static {
+            RouteTable<?>[] routeTables = new RouteTable<?>[ROUTE_TABLE_COUNT];
+            Arrays.fill(routeTables, RouteTable.EMPTY);
+            EMPTY = new Snapshot<>(Collections.emptyMap(), routeTables);
+        }
+
+        private final Map<T, MappingRegistration<T>> registry;
+
+        private final RouteTable<T>[] routeTables;
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        Snapshot(Map<T, MappingRegistration<T>> registry, RouteTable[] routeTables) {
+            this.registry = registry;
+            this.routeTables = routeTables;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> Snapshot<T> empty() {
+            return (Snapshot<T>) EMPTY;
+        }
+
+        public Map<T, MappingRegistration<T>> getRegistration() {
+            return this.registry;
+        }
+
+        /**
+         * Return the route table for the HTTP method of the given request.
+         */
+        public RouteTable<T> getRouteTable(HttpServletRequest request) {
+            HttpMethod httpMethod = HttpMethod.resolve(request.getMethod());
+            return this.routeTables[null != httpMethod ? httpMethod.ordinal() : ROUTE_TABLE_COUNT - 1];
+        }
+
+        /**
+         * Return the mappings of all route tables whose paths may match the
+         * given lookup path, for reporting why a request found no match.
+         */
+        public Set<T> getMappingsForPath(String lookupPath) {
+            Set<T> result = null;
+            for (RouteTable<T> routeTable : this.routeTables) {
+                List<T> directPathMatches = routeTable.getMappingsByDirectPath(lookupPath);
+                if (null != directPathMatches) {
+                    result = (null != result ? result : new LinkedHashSet<>());
+                    result.addAll(directPathMatches);
+                }
+                for (List<T> candidates : routeTable.getMappingsByPath(lookupPath)) {
+                    result = (null != result ? result : new LinkedHashSet<>());
+                    result.addAll(candidates);
+                }
+            }
+            return (null != result ? result : Collections.emptySet());
+        }
+    }
+
+    /**
+     * Immutable lookups of the mappings for one HTTP method: mappings by direct
+     * path and the route index for path patterns.
+     */
+    static final class RouteTable<T> {
+
+        private static final RouteTable<?> EMPTY = new RouteTable<>(Collections.emptyMap(), MappingPathIndex.empty());
+
+        private final Map<String, List<T>> pathLookup;
+
+        private final MappingPathIndex<T> pathIndex;
+
+        private RouteTable(Map<String, List<T>> pathLookup, MappingPathIndex<T> pathIndex) {
+            this.pathLookup = pathLookup;
+            this.pathIndex = pathIndex;
+        }
+
+        @Nullable
+        public List<T> getMappingsByDirectPath(String urlPath) {
+            return this.pathLookup.get(urlPath);
+        }
+
+        /**
+         * Return the sorted buckets of mappings whose path patterns may match the
+         * given lookup path, as narrowed down by the route index built at registration.
+         */
+        public List<List<T>> getMappingsByPath(String lookupPath) {
+            return this.pathIndex.getCandidates(lookupPath);
+        }
+
+        RouteTable<T> add(T mapping, Set<String> directPaths, Set<String> patterns, @Nullable Comparator<T> comparator) {
+            Map<String, List<T>> pathLookup = this.pathLookup;
+            if (!directPaths.isEmpty()) {
+                pathLookup = new HashMap<>(pathLookup);
+                for (String path : directPaths) {
+                    pathLookup.put(path, withMapping(pathLookup.get(path), mapping, comparator));
+                }
+                pathLookup = Collections.unmodifiableMap(pathLookup);
+            }
+            return new RouteTable<>(pathLookup, this.pathIndex.add(mapping, patterns, comparator));
+        }
+
+        RouteTable<T> remove(T mapping, Set<String> directPaths, Set<String> patterns) {
+            Map<String, List<T>> pathLookup = this.pathLookup;
+            if (!directPaths.isEmpty()) {
+                pathLookup = new HashMap<>(pathLookup);
+                for (String path : directPaths) {
+                    List<T> mappings = pathLookup.get(path);
+                    if (null == mappings) {
+                        continue;
+                    }
+                    List<T> remaining = new ArrayList<>(mappings);
+                    remaining.remove(mapping);
+                    if (remaining.isEmpty()) {
+                        pathLookup.remove(path);
+                    } else {
+                        pathLookup.put(path, Collections.unmodifiableList(remaining));
+                    }
+                }
+                pathLookup = Collections.unmodifiableMap(pathLookup);
+            }
+            return new RouteTable<>(pathLookup, this.pathIndex.remove(mapping, patterns));
+        }
+
+        /**
+         * Return a sorted copy of the given direct path bucket with the mapping added.
+         */
+        private static <T> List<T> withMapping(@Nullable List<T> mappings, T mapping,
+                                               @Nullable Comparator<T> comparator) {
+            List<T> result = new ArrayList<>(null != mappings ? mappings.size() + 1 : 1);
+            if (null != mappings) {
+                result.addAll(mappings);
+            }
+            result.add(mapping);
+            if (null != comparator) {
+                result.sort(comparator);
+            }
+            return Collections.unmodifiableList(result);
+        }
     }
 
     static class MappingRegistration<T> {
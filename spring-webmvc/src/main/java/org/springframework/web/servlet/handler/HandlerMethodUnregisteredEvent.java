@@ -0,0 +1,31 @@
+package org.springframework.web.servlet.handler;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Event published by an {@link AbstractHandlerMethodMapping} when a handler
+ * method is unregistered, or replaced by the registration of the same mapping,
+ * so that state kept per handler method can be dropped.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+@SuppressWarnings("serial")
+public class HandlerMethodUnregisteredEvent extends ApplicationEvent {
+
+    private final transient HandlerMethod handlerMethod;
+
+
+    public HandlerMethodUnregisteredEvent(AbstractHandlerMethodMapping<?> source, HandlerMethod handlerMethod) {
+        super(source);
+        this.handlerMethod = handlerMethod;
+    }
+
+
+    /**
+     * Return the handler method as it was registered.
+     */
+    public HandlerMethod getHandlerMethod() {
+        return this.handlerMethod;
+    }
+}
@@ -0,0 +1,329 @@
+package org.springframework.web.servlet.handler;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Segment based trie over the path patterns of registered mappings, used to
+ * narrow down the candidate mappings for a lookup path before any condition
+ * matching takes place.
+ * <p>
+ * Every pattern is split on "/" and each literal segment becomes a child node
+ * keyed by the segment text in lower case, and lookup segments are lower-cased
+ * the same way, so that mappings are found for case-insensitive matching too.
+ * Segments containing pattern syntax ({@code *},
+ * {@code ?} or <code>{</code>) share a single wildcard child per node, while a
+ * "**" or <code>{*...}</code> segment marks the mapping as a candidate for any
+ * path below the node. A lookup therefore visits at most one literal and one
+ * wildcard child per path segment, independent of the number of mappings.
+ * <p>
+ * The index may return mappings that do not match in the end, e.g. ones whose
+ * literal segments differ in case only, which condition matching rejects. It
+ * leaves out no mapping that matches by the segment-wise rules of
+ * {@code AntPathMatcher} and {@code PathPattern}, case-sensitive or not; a
+ * custom {@code PathMatcher} with other rules may need mappings without path
+ * patterns instead. Mappings without path patterns are always returned.
+ * <p>
+ * Mappings are kept in buckets, one per node and kind (terminal or catch-all),
+ * each sorted with the mapping comparator when a mapping is added. A lookup
+ * returns the visited buckets as they are, so callers can stop scanning a
+ * bucket once no remaining mapping can outrank their best match, without
+ * sorting at request time.
+ * <p>
+ * The index is immutable: adding or removing a mapping returns a new index
+ * that shares all untouched nodes, so it can be read by any number of threads
+ * while a new one is built.
+ *
+ * @author zhangdd on 2022/7/16
+ */
+final class MappingPathIndex<T> {
+
+    private static final MappingPathIndex<?> EMPTY =
+            new MappingPathIndex<>(new Node<>(), Collections.emptyList());
+
+
+    private final Node<T> root;
+
+    private final List<T> unindexed;
+
+
+    private MappingPathIndex(Node<T> root, List<T> unindexed) {
+        this.root = root;
+        this.unindexed = unindexed;
+    }
+
+
+    /**
+     * Return an index without mappings.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> MappingPathIndex<T> empty() {
+        return (MappingPathIndex<T>) EMPTY;
+    }
+
+    /**
+     * Return a copy of this index with the given mapping added under each of
+     * its path patterns. Only the nodes on the paths of the patterns are
+     * copied, all others are shared with this index.
+     *
+     * @param comparator the comparator to keep each bucket sorted by, or
+     *                   {@code null} to keep the registration order
+     */
+    public MappingPathIndex<T> add(T mapping, Collection<String> patterns, @Nullable Comparator<T> comparator) {
+        if (patterns.isEmpty()) {
+            return new MappingPathIndex<>(this.root, insert(this.unindexed, mapping, comparator));
+        }
+        Node<T> root = this.root;
+        for (String pattern : patterns) {
+            root = add(root, tokenize(pattern), 0, mapping, comparator);
+        }
+        return new MappingPathIndex<>(root, this.unindexed);
+    }
+
+    private static <T> Node<T> add(Node<T> node, List<String> segments, int index, T mapping,
+                                   @Nullable Comparator<T> comparator) {
+        if (index == segments.size()) {
+            return node.withTerminals(insert(node.terminals, mapping, comparator));
+        }
+        String segment = segments.get(index);
+        if (isCatchAllSegment(segment)) {
+            return node.withCatchAll(insert(node.catchAll, mapping, comparator));
+        }
+        boolean pattern = isPatternSegment(segment);
+        String key = (pattern ? segment : toKey(segment));
+        Node<T> child = node.getChild(key, pattern);
+        child = add(null != child ? child : new Node<>(), segments, index + 1, mapping, comparator);
+        return node.withChild(key, pattern, child);
+    }
+
+    /**
+     * Return a copy of this index with the given mapping removed from under
+     * each of its path patterns, which must be the ones it was added with.
+     * Nodes left without mappings and children are dropped.
+     */
+    public MappingPathIndex<T> remove(T mapping, Collection<String> patterns) {
+        if (patterns.isEmpty()) {
+            return new MappingPathIndex<>(this.root, without(this.unindexed, mapping));
+        }
+        Node<T> root = this.root;
+        for (String pattern : patterns) {
+            Node<T> node = remove(root, tokenize(pattern), 0, mapping);
+            root = (null != node ? node : new Node<>());
+        }
+        return new MappingPathIndex<>(root, this.unindexed);
+    }
+
+    @Nullable
+    private static <T> Node<T> remove(Node<T> node, List<String> segments, int index, T mapping) {
+        Node<T> result;
+        if (index == segments.size()) {
+            result = node.withTerminals(without(node.terminals, mapping));
+        } else {
+            String segment = segments.get(index);
+            if (isCatchAllSegment(segment)) {
+                result = node.withCatchAll(without(node.catchAll, mapping));
+            } else {
+                boolean pattern = isPatternSegment(segment);
+                String key = (pattern ? segment : toKey(segment));
+                Node<T> child = node.getChild(key, pattern);
+                if (null == child) {
+                    return node;
+                }
+                result = node.withChild(key, pattern, remove(child, segments, index + 1, mapping));
+            }
+        }
+        return (result.isEmpty() ? null : result);
+    }
+
+    /**
+     * Return the buckets of mappings that may match the given lookup path. Each
+     * bucket is sorted, but there is no order between buckets, and a mapping
+     * with several patterns may appear in more than one bucket.
+     */
+    public List<List<T>> getCandidates(String lookupPath) {
+        List<List<T>> result = new ArrayList<>(4);
+        addBucket(this.unindexed, result);
+        List<String> segments = tokenize(lookupPath);
+        collect(this.root, segments, 0, lookupPath.endsWith("/"), result);
+        return result;
+    }
+
+    private void collect(Node<T> node, List<String> segments, int index, boolean trailingSlash, List<List<T>> result) {
+        addBucket(node.catchAll, result);
+        if (index == segments.size()) {
+            addBucket(node.terminals, result);
+            // AntPathMatcher lets a trailing "*" segment match a path ending with "/"
+            if (trailingSlash && null != node.wildcardChild) {
+                addBucket(node.wildcardChild.catchAll, result);
+                addBucket(node.wildcardChild.terminals, result);
+            }
+            return;
+        }
+        String segment = toKey(segments.get(index));
+        Node<T> literalChild = node.literalChildren.get(segment);
+        if (null != literalChild) {
+            collect(literalChild, segments, index + 1, trailingSlash, result);
+        } else if (index == segments.size() - 1 && segment.indexOf('.') > 0) {
+            // Suffix pattern match: "/users" may match "/users.json"
+            literalChild = node.literalChildren.get(segment.substring(0, segment.indexOf('.')));
+            if (null != literalChild) {
+                collect(literalChild, segments, index + 1, trailingSlash, result);
+            }
+        }
+        if (null != node.wildcardChild) {
+            collect(node.wildcardChild, segments, index + 1, trailingSlash, result);
+        }
+    }
+
+    private static <T> void addBucket(List<T> bucket, List<List<T>> result) {
+        if (!bucket.isEmpty()) {
+            result.add(bucket);
+        }
+    }
+
+    /**
+     * Return a copy of the bucket with the mapping inserted after all mappings
+     * that are not less specific, so that equally specific mappings keep their
+     * registration order.
+     */
+    private static <T> List<T> insert(List<T> bucket, T mapping, @Nullable Comparator<T> comparator) {
+        int index = bucket.size();
+        if (null != comparator) {
+            while (index > 0 && comparator.compare(bucket.get(index - 1), mapping) > 0) {
+                index--;
+            }
+        }
+        List<T> result = new ArrayList<>(bucket.size() + 1);
+        result.addAll(bucket);
+        result.add(index, mapping);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Return a copy of the bucket without the given mapping.
+     */
+    private static <T> List<T> without(List<T> bucket, T mapping) {
+        int index = bucket.indexOf(mapping);
+        if (index == -1) {
+            return bucket;
+        }
+        if (bucket.size() == 1) {
+            return Collections.emptyList();
+        }
+        List<T> result = new ArrayList<>(bucket);
+        result.remove(index);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Return the key of a literal segment, the segment itself if it has no
+     * upper case characters.
+     */
+    private static String toKey(String segment) {
+        return segment.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isCatchAllSegment(String segment) {
+        return "**".equals(segment) || segment.startsWith("{*");
+    }
+
+    private static boolean isPatternSegment(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '*' || c == '?' || c == '{') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Split the given path on "/" ignoring empty segments, the same way
+     * AntPathMatcher tokenizes paths and patterns.
+     */
+    private static List<String> tokenize(String path) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        int length = path.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == '/') {
+                if (i > start) {
+                    segments.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments;
+    }
+
+
+    /**
+     * Immutable trie node, copied on every change below it.
+     */
+    private static final class Node<T> {
+
+        private final Map<String, Node<T>> literalChildren;
+
+        @Nullable
+        private final Node<T> wildcardChild;
+
+        private final List<T> terminals;
+
+        private final List<T> catchAll;
+
+        Node() {
+            this(Collections.emptyMap(), null, Collections.emptyList(), Collections.emptyList());
+        }
+
+        private Node(Map<String, Node<T>> literalChildren, @Nullable Node<T> wildcardChild,
+                     List<T> terminals, List<T> catchAll) {
+            this.literalChildren = literalChildren;
+            this.wildcardChild = wildcardChild;
+            this.terminals = terminals;
+            this.catchAll = catchAll;
+        }
+
+        @Nullable
+        Node<T> getChild(String segment, boolean pattern) {
+            return (pattern ? this.wildcardChild : this.literalChildren.get(segment));
+        }
+
+        /**
+         * Return a copy of this node with the given child, or without the
+         * child for the segment if it is {@code null}.
+         */
+        Node<T> withChild(String segment, boolean pattern, @Nullable Node<T> child) {
+            if (pattern) {
+                return new Node<>(this.literalChildren, child, this.terminals, this.catchAll);
+            }
+            Map<String, Node<T>> children = new HashMap<>(this.literalChildren);
+            if (null != child) {
+                children.put(segment, child);
+            } else {
+                children.remove(segment);
+            }
+            return new Node<>(children, this.wildcardChild, this.terminals, this.catchAll);
+        }
+
+        Node<T> withTerminals(List<T> terminals) {
+            return new Node<>(this.literalChildren, this.wildcardChild, terminals, this.catchAll);
+        }
+
+        Node<T> withCatchAll(List<T> catchAll) {
+            return new Node<>(this.literalChildren, this.wildcardChild, this.terminals, catchAll);
+        }
+
+        boolean isEmpty() {
+            return (this.literalChildren.isEmpty() && null == this.wildcardChild &&
+                    this.terminals.isEmpty() && this.catchAll.isEmpty());
+        }
+    }
+}
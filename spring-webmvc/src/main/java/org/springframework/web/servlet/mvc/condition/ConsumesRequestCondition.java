@@ -0,0 +1,170 @@
+package org.springframework.web.servlet.mvc.condition;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A logical disjunction (' || ') request condition to match a request's
+ * 'Content-Type' header to a list of media types.
+ * <p>
+ * The media types are parsed once when the condition is created. The
+ * 'Content-Type' of a request is parsed once as well and kept in a request
+ * attribute, so the consumes conditions of all candidate mappings share it.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public final class ConsumesRequestCondition extends AbstractRequestCondition<ConsumesRequestCondition> {
+
+    /**
+     * Name of the request attribute holding the parsed 'Content-Type' of the request.
+     */
+    private static final String CONTENT_TYPE_ATTRIBUTE = ConsumesRequestCondition.class.getName() + ".CONTENT_TYPE";
+
+    /**
+     * Placeholder for a 'Content-Type' header that cannot be parsed.
+     */
+    private static final Object INVALID_CONTENT_TYPE = new Object();
+
+
+    private final List<MediaType> mediaTypes;
+
+
+    /**
+     * Create a new instance from the given media types, e.g.
+     * "application/json" or "text/*".
+     *
+     * @param consumes 0 or more media types; if 0, the condition will match to
+     *                 every request
+     */
+    public ConsumesRequestCondition(String... consumes) {
+        this(parse(consumes));
+    }
+
+    private ConsumesRequestCondition(List<MediaType> mediaTypes) {
+        this.mediaTypes = mediaTypes;
+    }
+
+    private static List<MediaType> parse(String... consumes) {
+        if (consumes.length == 0) {
+            return Collections.emptyList();
+        }
+        Set<MediaType> result = new LinkedHashSet<>();
+        for (String consume : consumes) {
+            result.addAll(MediaType.parseMediaTypes(consume));
+        }
+        return Collections.unmodifiableList(new ArrayList<>(result));
+    }
+
+
+    /**
+     * Return the contained media types.
+     */
+    public List<MediaType> getConsumableMediaTypes() {
+        return this.mediaTypes;
+    }
+
+    public boolean isEmpty() {
+        return this.mediaTypes.isEmpty();
+    }
+
+    /**
+     * Returns the "other" instance if it has any media types; or "this"
+     * instance otherwise. In other words "other" takes precedence over "this".
+     */
+    @Override
+    public ConsumesRequestCondition combine(ConsumesRequestCondition other) {
+        return (!other.isEmpty() ? other : this);
+    }
+
+    /**
+     * Checks if any of the contained media types match the request's
+     * 'Content-Type', which is {@code application/octet-stream} if not set.
+     *
+     * @return the same instance if the condition is empty or all media types
+     * match, a new condition with the matching media types only, or
+     * {@code null} if none match
+     */
+    @Override
+    @Nullable
+    public ConsumesRequestCondition getMatchingCondition(HttpServletRequest request) {
+        if (isEmpty()) {
+            return this;
+        }
+        MediaType contentType = getContentType(request);
+        if (null == contentType) {
+            return null;
+        }
+        List<MediaType> result = null;
+        for (int i = 0; i < this.mediaTypes.size(); i++) {
+            MediaType mediaType = this.mediaTypes.get(i);
+            if (mediaType.includes(contentType)) {
+                if (null != result) {
+                    result.add(mediaType);
+                }
+            } else if (null == result) {
+                result = new ArrayList<>(this.mediaTypes.subList(0, i));
+            }
+        }
+        if (null == result) {
+            return this;
+        }
+        return (!result.isEmpty() ? new ConsumesRequestCondition(result) : null);
+    }
+
+    /**
+     * Return the parsed 'Content-Type' of the given request, or {@code null}
+     * if it cannot be parsed.
+     */
+    @Nullable
+    private static MediaType getContentType(HttpServletRequest request) {
+        Object contentType = request.getAttribute(CONTENT_TYPE_ATTRIBUTE);
+        if (null == contentType) {
+            try {
+                contentType = (StringUtils.hasLength(request.getContentType()) ?
+                        MediaType.parseMediaType(request.getContentType()) : MediaType.APPLICATION_OCTET_STREAM);
+            } catch (InvalidMediaTypeException ex) {
+                contentType = INVALID_CONTENT_TYPE;
+            }
+            request.setAttribute(CONTENT_TYPE_ATTRIBUTE, contentType);
+        }
+        return (contentType instanceof MediaType ? (MediaType) contentType : null);
+    }
+
+    /**
+     * Remove the parsed 'Content-Type' from the request once the lookup of the
+     * handler is complete.
+     */
+    public static void clearContentTypeAttribute(HttpServletRequest request) {
+        request.removeAttribute(CONTENT_TYPE_ATTRIBUTE);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ConsumesRequestCondition)) {
+            return false;
+        }
+        return this.mediaTypes.equals(((ConsumesRequestCondition) other).mediaTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.mediaTypes.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.mediaTypes.toString();
+    }
+}
@@ -0,0 +1,106 @@
+package org.springframework.web.servlet.mvc.condition;
+
+import org.springframework.lang.Nullable;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Set;
+
+/**
+ * A logical conjunction (' && ') request condition that matches a request
+ * against a set of header expressions, as in {@code RequestMapping#headers()}.
+ * <p>
+ * The expressions are compiled once into flat arrays of names, expected values
+ * and negation flags, so matching a request looks up each header and compares
+ * it without allocation.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public final class HeadersRequestCondition extends AbstractRequestCondition<HeadersRequestCondition> {
+
+    private final NameValueExpressions expressions;
+
+
+    /**
+     * Create a new instance from the given header expressions.
+     *
+     * @param headers expressions of the form "name", "!name", "name=value" or
+     *                "name!=value"; if 0, the condition will match to every request
+     */
+    public HeadersRequestCondition(String... headers) {
+        this(NameValueExpressions.compile(headers));
+    }
+
+    private HeadersRequestCondition(NameValueExpressions expressions) {
+        this.expressions = expressions;
+    }
+
+
+    /**
+     * Return the header expressions of this condition.
+     */
+    public Set<String> getExpressions() {
+        return this.expressions.getExpressions();
+    }
+
+    /**
+     * Return the number of header expressions, a measure of how specific the
+     * condition is.
+     */
+    public int getExpressionCount() {
+        return this.expressions.size();
+    }
+
+    public boolean isEmpty() {
+        return this.expressions.isEmpty();
+    }
+
+    /**
+     * Returns a new instance with the union of the header expressions
+     * from "this" and the "other" instance.
+     */
+    @Override
+    public HeadersRequestCondition combine(HeadersRequestCondition other) {
+        if (other.isEmpty()) {
+            return this;
+        } else if (isEmpty()) {
+            return other;
+        }
+        return new HeadersRequestCondition(this.expressions.combine(other.expressions));
+    }
+
+    /**
+     * Returns "this" instance if the request matches all expressions,
+     * or {@code null} otherwise.
+     */
+    @Override
+    @Nullable
+    public HeadersRequestCondition getMatchingCondition(HttpServletRequest request) {
+        String[] names = this.expressions.names;
+        String[] values = this.expressions.values;
+        boolean[] negated = this.expressions.negated;
+        for (int i = 0; i < names.length; i++) {
+            String value = request.getHeader(names[i]);
+            boolean matches = (null == values[i] ? null != value : values[i].equals(value));
+            if (matches == negated[i]) {
+                return null;
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        return (this == other || (other instanceof HeadersRequestCondition &&
+                this.expressions.equals(((HeadersRequestCondition) other).expressions)));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.expressions.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "[" + this.expressions + "]";
+    }
+}
@@ -0,0 +1,113 @@
+package org.springframework.web.servlet.mvc.condition;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Name-value expressions of the form "name", "!name", "name=value" and
+ * "name!=value", compiled into flat arrays, so that the conditions based on
+ * them can be checked by index without allocation.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+final class NameValueExpressions {
+
+    static final NameValueExpressions EMPTY = new NameValueExpressions(Collections.emptySet());
+
+
+    private final Set<String> expressions;
+
+    final String[] names;
+
+    /**
+     * The expected value per expression, or {@code null} if only the presence
+     * of the name is checked.
+     */
+    final String[] values;
+
+    final boolean[] negated;
+
+
+    private NameValueExpressions(Set<String> expressions) {
+        this.expressions = Collections.unmodifiableSet(expressions);
+        int size = expressions.size();
+        this.names = new String[size];
+        this.values = new String[size];
+        this.negated = new boolean[size];
+        int i = 0;
+        for (String expression : expressions) {
+            int separator = expression.indexOf('=');
+            if (separator == -1) {
+                this.negated[i] = expression.startsWith("!");
+                this.names[i] = (this.negated[i] ? expression.substring(1) : expression);
+            } else {
+                this.negated[i] = (separator > 0 && expression.charAt(separator - 1) == '!');
+                this.names[i] = expression.substring(0, this.negated[i] ? separator - 1 : separator);
+                this.values[i] = expression.substring(separator + 1);
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Compile the given expressions, ignoring blank ones and duplicates.
+     */
+    static NameValueExpressions compile(@Nullable String... expressions) {
+        if (null == expressions || expressions.length == 0) {
+            return EMPTY;
+        }
+        Set<String> result = new LinkedHashSet<>(expressions.length);
+        for (String expression : expressions) {
+            if (StringUtils.hasText(expression)) {
+                result.add(expression.trim());
+            }
+        }
+        return (result.isEmpty() ? EMPTY : new NameValueExpressions(result));
+    }
+
+    /**
+     * Return the union of these and the other expressions.
+     */
+    NameValueExpressions combine(NameValueExpressions other) {
+        if (other.isEmpty()) {
+            return this;
+        } else if (isEmpty()) {
+            return other;
+        }
+        Set<String> set = new LinkedHashSet<>(this.expressions);
+        set.addAll(other.expressions);
+        return new NameValueExpressions(set);
+    }
+
+    Set<String> getExpressions() {
+        return this.expressions;
+    }
+
+    int size() {
+        return this.names.length;
+    }
+
+    boolean isEmpty() {
+        return this.names.length == 0;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        return (this == other || (other instanceof NameValueExpressions &&
+                this.expressions.equals(((NameValueExpressions) other).expressions)));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.expressions.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" && ", this.expressions);
+    }
+}
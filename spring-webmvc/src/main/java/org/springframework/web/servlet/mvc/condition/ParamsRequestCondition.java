@@ -0,0 +1,116 @@
+package org.springframework.web.servlet.mvc.condition;
+
+import org.springframework.lang.Nullable;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Set;
+
+/**
+ * A logical conjunction (' && ') request condition that matches a request
+ * against a set of parameter expressions, as in {@code RequestMapping#params()}.
+ * A "name=value" expression matches if any of the values of the parameter is equal.
+ * <p>
+ * The expressions are compiled once into flat arrays of names, expected values
+ * and negation flags, so matching a request looks up each parameter and compares
+ * it without allocation.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public final class ParamsRequestCondition extends AbstractRequestCondition<ParamsRequestCondition> {
+
+    private final NameValueExpressions expressions;
+
+
+    /**
+     * Create a new instance from the given parameter expressions.
+     *
+     * @param params expressions of the form "name", "!name", "name=value" or
+     *               "name!=value"; if 0, the condition will match to every request
+     */
+    public ParamsRequestCondition(String... params) {
+        this(NameValueExpressions.compile(params));
+    }
+
+    private ParamsRequestCondition(NameValueExpressions expressions) {
+        this.expressions = expressions;
+    }
+
+
+    /**
+     * Return the parameter expressions of this condition.
+     */
+    public Set<String> getExpressions() {
+        return this.expressions.getExpressions();
+    }
+
+    /**
+     * Return the number of parameter expressions, a measure of how specific the
+     * condition is.
+     */
+    public int getExpressionCount() {
+        return this.expressions.size();
+    }
+
+    public boolean isEmpty() {
+        return this.expressions.isEmpty();
+    }
+
+    /**
+     * Returns a new instance with the union of the parameter expressions
+     * from "this" and the "other" instance.
+     */
+    @Override
+    public ParamsRequestCondition combine(ParamsRequestCondition other) {
+        if (other.isEmpty()) {
+            return this;
+        } else if (isEmpty()) {
+            return other;
+        }
+        return new ParamsRequestCondition(this.expressions.combine(other.expressions));
+    }
+
+    /**
+     * Returns "this" instance if the request matches all expressions,
+     * or {@code null} otherwise.
+     */
+    @Override
+    @Nullable
+    public ParamsRequestCondition getMatchingCondition(HttpServletRequest request) {
+        String[] names = this.expressions.names;
+        String[] values = this.expressions.values;
+        boolean[] negated = this.expressions.negated;
+        for (int i = 0; i < names.length; i++) {
+            String[] requestValues = request.getParameterValues(names[i]);
+            boolean matches = (null != requestValues && (null == values[i] || containsValue(requestValues, values[i])));
+            if (matches == negated[i]) {
+                return null;
+            }
+        }
+        return this;
+    }
+
+    private static boolean containsValue(String[] requestValues, String value) {
+        for (String requestValue : requestValues) {
+            if (value.equals(requestValue)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        return (this == other || (other instanceof ParamsRequestCondition &&
+                this.expressions.equals(((ParamsRequestCondition) other).expressions)));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.expressions.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "[" + this.expressions + "]";
+    }
+}
@@ -1,11 +1,16 @@
 package org.springframework.web.servlet.mvc.condition;
 
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.pattern.PathPattern;
 import org.springframework.web.util.pattern.PathPatternParser;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -52,21 +57,108 @@ public class PathPatternsRequestCondition extends AbstractRequestCondition<PathP
         return result;
     }
 
+    /**
+     * Combine the patterns of this condition with those of the other, using
+     * {@link PathPattern#combine(PathPattern)} for each pair. A condition with
+     * the empty path mapping leaves the patterns of the other one as they are.
+     */
     @Override
     public PathPatternsRequestCondition combine(PathPatternsRequestCondition other) {
-        return null;
+        if (other.isEmptyPathMapping()) {
+            return this;
+        } else if (isEmptyPathMapping()) {
+            return other;
+        }
+        SortedSet<PathPattern> combined = new TreeSet<>();
+        for (PathPattern pattern1 : this.patterns) {
+            for (PathPattern pattern2 : other.patterns) {
+                combined.add(pattern1.combine(pattern2));
+            }
+        }
+        return new PathPatternsRequestCondition(combined);
     }
 
+    /**
+     * Checks whether any of the patterns match the given request and returns an
+     * instance that is guaranteed to contain matching patterns, sorted.
+     */
     @Override
+    @Nullable
     public PathPatternsRequestCondition getMatchingCondition(HttpServletRequest request) {
-        return null;
+        PathContainer path = ServletRequestPathUtils.getParsedRequestPath(request);
+        SortedSet<PathPattern> matches = getMatchingPatterns(path);
+        return null != matches ? new PathPatternsRequestCondition(matches) : null;
+    }
+
+    @Nullable
+    private SortedSet<PathPattern> getMatchingPatterns(PathContainer path) {
+        TreeSet<PathPattern> result = null;
+        for (PathPattern pattern : this.patterns) {
+            if (pattern.matches(path)) {
+                result = (null != result ? result : new TreeSet<>());
+                result.add(pattern);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the patterns in this condition, sorted.
+     */
+    public SortedSet<PathPattern> getPatterns() {
+        return this.patterns;
+    }
+
+    /**
+     * Return the patterns of this condition as Strings.
+     */
+    public Set<String> getPatternValues() {
+        Set<String> result = new LinkedHashSet<>(this.patterns.size());
+        for (PathPattern pattern : this.patterns) {
+            result.add(pattern.getPatternString());
+        }
+        return result;
     }
 
     public boolean isEmptyPathMapping() {
         return this.patterns == EMPTY_PATH_PATTERN;
     }
 
+    /**
+     * Return the mapping paths that are not patterns.
+     */
     public Set<String> getDirectPaths() {
-        return null;
+        if (isEmptyPathMapping()) {
+            return EMPTY_PATH;
+        }
+        Set<String> result = Collections.emptySet();
+        for (PathPattern pattern : this.patterns) {
+            if (!pattern.hasPatternSyntax()) {
+                result = (result.isEmpty() ? new HashSet<>(1) : result);
+                result.add(pattern.getPatternString());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PathPatternsRequestCondition)) {
+            return false;
+        }
+        return this.patterns.equals(((PathPatternsRequestCondition) other).patterns);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.patterns.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getPatternValues().toString();
     }
 }
@@ -95,6 +95,10 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
     }
 
 
+    public Set<String> getPatterns() {
+        return this.patterns;
+    }
+
     /**
      * Whether the condition is the "" (empty path) mapping.
      */
@@ -117,9 +121,30 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
         return result;
     }
 
+    /**
+     * Returns a new instance with URL patterns from the current instance ("this") and
+     * the "other" instance as follows:
+     * <ul>
+     * <li>If there are patterns in both instances, combine the patterns in "this" with
+     * the patterns in "other" using {@link PathMatcher#combine(String, String)}.
+     * <li>If only one instance has patterns, use them.
+     * <li>If neither instance has patterns, use an empty String (i.e. "").
+     * </ul>
+     */
     @Override
     public PatternsRequestCondition combine(PatternsRequestCondition other) {
-        return null;
+        if (other.isEmptyPathMapping()) {
+            return this;
+        } else if (isEmptyPathMapping()) {
+            return other;
+        }
+        Set<String> result = new LinkedHashSet<>();
+        for (String pattern1 : this.patterns) {
+            for (String pattern2 : other.patterns) {
+                result.add(this.pathMatcher.combine(pattern1, pattern2));
+            }
+        }
+        return new PatternsRequestCondition(result, this);
     }
 
     @Override
@@ -148,7 +173,7 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
             return Collections.emptyList();
         }
         if (matches.size() > 1) {
-            this.pathMatcher.getPatternComparator(lookupPath);
+            matches.sort(this.pathMatcher.getPatternComparator(lookupPath));
         }
         return matches;
     }
@@ -182,4 +207,25 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
         }
         return null;
     }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PatternsRequestCondition)) {
+            return false;
+        }
+        return this.patterns.equals(((PatternsRequestCondition) other).patterns);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.patterns.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.patterns.toString();
+    }
 }
@@ -0,0 +1,220 @@
+package org.springframework.web.servlet.mvc.condition;
+
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A logical disjunction (' || ') request condition to match a request's 'Accept'
+ * header to a list of media types.
+ * <p>
+ * The media types are parsed once when the condition is created. The media
+ * types accepted by a request are resolved once through the
+ * {@link ContentNegotiationManager} and kept in a request attribute, so the
+ * produces conditions of all candidate mappings share them.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public final class ProducesRequestCondition extends AbstractRequestCondition<ProducesRequestCondition> {
+
+    private static final ContentNegotiationManager DEFAULT_CONTENT_NEGOTIATION_MANAGER =
+            new ContentNegotiationManager();
+
+    /**
+     * Name of the request attribute holding the media types accepted by the
+     * request, or the exception raised when parsing the 'Accept' header.
+     */
+    private static final String MEDIA_TYPES_ATTRIBUTE = ProducesRequestCondition.class.getName() + ".MEDIA_TYPES";
+
+
+    private final List<MediaType> mediaTypes;
+
+    private final Set<MediaType> producibleMediaTypes;
+
+    private final ContentNegotiationManager contentNegotiationManager;
+
+
+    /**
+     * Create a new instance from the given media types, e.g.
+     * "application/json" or "text/*".
+     *
+     * @param produces 0 or more media types; if 0, the condition will match to
+     *                 every request
+     */
+    public ProducesRequestCondition(String... produces) {
+        this(produces, null);
+    }
+
+    /**
+     * Create a new instance from the given media types, resolving the media
+     * types accepted by a request with the given manager.
+     */
+    public ProducesRequestCondition(String[] produces, @Nullable ContentNegotiationManager manager) {
+        this(parse(produces), null != manager ? manager : DEFAULT_CONTENT_NEGOTIATION_MANAGER);
+    }
+
+    private ProducesRequestCondition(List<MediaType> mediaTypes, ContentNegotiationManager manager) {
+        this.mediaTypes = mediaTypes;
+        this.producibleMediaTypes = Collections.unmodifiableSet(new LinkedHashSet<>(mediaTypes));
+        this.contentNegotiationManager = manager;
+    }
+
+    private static List<MediaType> parse(String... produces) {
+        if (produces.length == 0) {
+            return Collections.emptyList();
+        }
+        Set<MediaType> result = new LinkedHashSet<>();
+        for (String produce : produces) {
+            result.addAll(MediaType.parseMediaTypes(produce));
+        }
+        return Collections.unmodifiableList(new ArrayList<>(result));
+    }
+
+
+    /**
+     * Return the contained producible media types, as exposed through
+     * {@code HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE}.
+     */
+    public Set<MediaType> getProducibleMediaTypes() {
+        return this.producibleMediaTypes;
+    }
+
+    public boolean isEmpty() {
+        return this.mediaTypes.isEmpty();
+    }
+
+    /**
+     * Returns the "other" instance if it has any media types; or "this"
+     * instance otherwise. In other words "other" takes precedence over "this".
+     */
+    @Override
+    public ProducesRequestCondition combine(ProducesRequestCondition other) {
+        return (!other.isEmpty() ? other : this);
+    }
+
+    /**
+     * Checks if any of the contained media types are compatible with the
+     * media types accepted by the request.
+     *
+     * @return the same instance if the condition is empty or all media types
+     * match, a new condition with the matching media types only, or
+     * {@code null} if none match
+     */
+    @Override
+    @Nullable
+    public ProducesRequestCondition getMatchingCondition(HttpServletRequest request) {
+        if (isEmpty()) {
+            return this;
+        }
+        List<MediaType> acceptedMediaTypes = getAcceptedMediaTypes(request);
+        if (null == acceptedMediaTypes) {
+            return null;
+        }
+        List<MediaType> result = null;
+        for (int i = 0; i < this.mediaTypes.size(); i++) {
+            MediaType mediaType = this.mediaTypes.get(i);
+            if (isCompatible(mediaType, acceptedMediaTypes)) {
+                if (null != result) {
+                    result.add(mediaType);
+                }
+            } else if (null == result) {
+                result = new ArrayList<>(this.mediaTypes.subList(0, i));
+            }
+        }
+        if (null == result) {
+            return this;
+        }
+        return (!result.isEmpty() ? new ProducesRequestCondition(result, this.contentNegotiationManager) : null);
+    }
+
+    private static boolean isCompatible(MediaType mediaType, List<MediaType> acceptedMediaTypes) {
+        for (MediaType acceptedMediaType : acceptedMediaTypes) {
+            if (mediaType.isCompatibleWith(acceptedMediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the media types accepted by the given request, or {@code null}
+     * if the 'Accept' header cannot be parsed.
+     */
+    @Nullable
+    private List<MediaType> getAcceptedMediaTypes(HttpServletRequest request) {
+        try {
+            return getAcceptedMediaTypes(request, this.contentNegotiationManager);
+        } catch (HttpMediaTypeNotAcceptableException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Return the media types accepted by the given request. They are resolved
+     * on first use in the request and kept until the next handler lookup, so
+     * that the produces conditions and the content negotiation of the response
+     * parse the 'Accept' header only once.
+     * @param request the current request
+     * @param contentNegotiationManager the manager to resolve the media types
+     * with, if not resolved yet for the request
+     * @throws HttpMediaTypeNotAcceptableException if the 'Accept' header
+     * cannot be parsed
+     */
+    @SuppressWarnings("unchecked")
+    public static List<MediaType> getAcceptedMediaTypes(HttpServletRequest request,
+                                                        ContentNegotiationManager contentNegotiationManager)
+            throws HttpMediaTypeNotAcceptableException {
+
+        Object mediaTypes = request.getAttribute(MEDIA_TYPES_ATTRIBUTE);
+        if (null == mediaTypes) {
+            try {
+                mediaTypes = contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request));
+            } catch (HttpMediaTypeNotAcceptableException ex) {
+                mediaTypes = ex;
+            }
+            request.setAttribute(MEDIA_TYPES_ATTRIBUTE, mediaTypes);
+        }
+        if (mediaTypes instanceof HttpMediaTypeNotAcceptableException) {
+            throw (HttpMediaTypeNotAcceptableException) mediaTypes;
+        }
+        return (List<MediaType>) mediaTypes;
+    }
+
+    /**
+     * Remove the accepted media types left on the request by a previous
+     * dispatch, before the lookup of the handler starts.
+     */
+    public static void clearMediaTypesAttribute(HttpServletRequest request) {
+        request.removeAttribute(MEDIA_TYPES_ATTRIBUTE);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ProducesRequestCondition)) {
+            return false;
+        }
+        return this.mediaTypes.equals(((ProducesRequestCondition) other).mediaTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.mediaTypes.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.mediaTypes.toString();
+    }
+}
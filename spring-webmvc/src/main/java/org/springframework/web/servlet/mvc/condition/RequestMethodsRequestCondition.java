@@ -0,0 +1,172 @@
+package org.springframework.web.servlet.mvc.condition;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A logical disjunction (' || ') request condition that matches a request
+ * against a set of {@link RequestMethod RequestMethods}.
+ * <p>
+ * The methods are also kept as a bitmask, see {@link #getMethodMask()}, which
+ * the handler mapping uses to file a mapping under the route table of each
+ * HTTP method it accepts. An empty condition matches every method.
+ *
+ * @author zhangdd on 2022/7/24
+ */
+public final class RequestMethodsRequestCondition extends AbstractRequestCondition<RequestMethodsRequestCondition> {
+
+    /**
+     * Bit for HTTP methods that are not in {@link HttpMethod}, the bits below it
+     * stand for the {@code HttpMethod} with the same ordinal.
+     */
+    public static final int OTHER_METHOD_BIT = 1 << HttpMethod.values().length;
+
+    /**
+     * Mask of a condition without methods, which matches every HTTP method.
+     */
+    public static final int ALL_METHODS_MASK = (OTHER_METHOD_BIT << 1) - 1;
+
+    /**
+     * Single method conditions returned by {@link #getMatchingCondition}, by ordinal.
+     */
+    private static final RequestMethodsRequestCondition[] MATCHING_CONDITIONS;
+
+    static {
+        RequestMethod[] methods = RequestMethod.values();
+        MATCHING_CONDITIONS = new RequestMethodsRequestCondition[methods.length];
+        for (RequestMethod method : methods) {
+            MATCHING_CONDITIONS[method.ordinal()] = new RequestMethodsRequestCondition(EnumSet.of(method));
+        }
+    }
+
+
+    private final Set<RequestMethod> methods;
+
+    private final int methodMask;
+
+
+    /**
+     * Create a new instance with the given request methods.
+     *
+     * @param requestMethods 0 or more HTTP request methods; if 0, the condition
+     *                       will match to every request
+     */
+    public RequestMethodsRequestCondition(RequestMethod... requestMethods) {
+        this(requestMethods.length == 0 ? Collections.emptySet() : EnumSet.of(requestMethods[0], requestMethods));
+    }
+
+    private RequestMethodsRequestCondition(Set<RequestMethod> methods) {
+        this.methods = Collections.unmodifiableSet(methods);
+        this.methodMask = computeMethodMask(methods);
+    }
+
+    private static int computeMethodMask(Set<RequestMethod> methods) {
+        if (methods.isEmpty()) {
+            return ALL_METHODS_MASK;
+        }
+        int mask = 0;
+        for (RequestMethod method : methods) {
+            mask |= getMethodBit(HttpMethod.valueOf(method.name()));
+            if (method == RequestMethod.GET) {
+                // HEAD is served by GET mappings
+                mask |= getMethodBit(HttpMethod.HEAD);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Return the bit of the given HTTP method, or {@link #OTHER_METHOD_BIT} for
+     * a method that is not in {@link HttpMethod}.
+     */
+    public static int getMethodBit(@Nullable HttpMethod httpMethod) {
+        return (null != httpMethod ? 1 << httpMethod.ordinal() : OTHER_METHOD_BIT);
+    }
+
+
+    /**
+     * Returns all {@link RequestMethod RequestMethods} contained in this condition.
+     */
+    public Set<RequestMethod> getMethods() {
+        return this.methods;
+    }
+
+    /**
+     * Return the bitmask of the HTTP methods this condition matches, with a bit
+     * as given by {@link #getMethodBit(HttpMethod)} per method.
+     */
+    public int getMethodMask() {
+        return this.methodMask;
+    }
+
+    public boolean isEmpty() {
+        return this.methods.isEmpty();
+    }
+
+    /**
+     * Returns a new instance with a union of the HTTP request methods
+     * from "this" and the "other" instance.
+     */
+    @Override
+    public RequestMethodsRequestCondition combine(RequestMethodsRequestCondition other) {
+        if (other.isEmpty()) {
+            return this;
+        } else if (isEmpty()) {
+            return other;
+        }
+        Set<RequestMethod> set = EnumSet.copyOf(this.methods);
+        set.addAll(other.methods);
+        return new RequestMethodsRequestCondition(set);
+    }
+
+    /**
+     * Check if any of the HTTP request methods match the given request and
+     * return an instance that contains the matching HTTP request method only.
+     *
+     * @return the same instance if the condition is empty, a new condition with
+     * the matched request method, or {@code null} if there is no match
+     */
+    @Override
+    @Nullable
+    public RequestMethodsRequestCondition getMatchingCondition(HttpServletRequest request) {
+        if (isEmpty()) {
+            return this;
+        }
+        HttpMethod httpMethod = HttpMethod.resolve(request.getMethod());
+        if (null == httpMethod || (this.methodMask & getMethodBit(httpMethod)) == 0) {
+            return null;
+        }
+        RequestMethod requestMethod = RequestMethod.valueOf(httpMethod.name());
+        if (requestMethod == RequestMethod.HEAD && !this.methods.contains(RequestMethod.HEAD)) {
+            return MATCHING_CONDITIONS[RequestMethod.GET.ordinal()];
+        }
+        return MATCHING_CONDITIONS[requestMethod.ordinal()];
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RequestMethodsRequestCondition)) {
+            return false;
+        }
+        return this.methods.equals(((RequestMethodsRequestCondition) other).methods);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.methods.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.methods.toString();
+    }
+}
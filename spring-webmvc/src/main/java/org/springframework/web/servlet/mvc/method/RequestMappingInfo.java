@@ -5,14 +5,24 @@ import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.condition.ConsumesRequestCondition;
+import org.springframework.web.servlet.mvc.condition.HeadersRequestCondition;
+import org.springframework.web.servlet.mvc.condition.ParamsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.PathPatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
+import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestCondition;
+import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
 import org.springframework.web.util.pattern.PathPatternParser;
 
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Comparator;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 
 /**
  * @author zhangdd on 2022/6/18
@@ -23,6 +33,36 @@ public class RequestMappingInfo implements RequestCondition<RequestMappingInfo>
 
     private static final PatternsRequestCondition EMPTY_PATTERNS = new PatternsRequestCondition();
 
+    private static final RequestMethodsRequestCondition EMPTY_REQUEST_METHODS = new RequestMethodsRequestCondition();
+
+    private static final ParamsRequestCondition EMPTY_PARAMS = new ParamsRequestCondition();
+
+    private static final HeadersRequestCondition EMPTY_HEADERS = new HeadersRequestCondition();
+
+    private static final ConsumesRequestCondition EMPTY_CONSUMES = new ConsumesRequestCondition();
+
+    private static final ProducesRequestCondition EMPTY_PRODUCES = new ProducesRequestCondition();
+
+    /**
+     * Comparator that orders mappings by the precomputed specificity of their
+     * patterns, most specific first, and by their patterns for equal scores.
+     * Mappings with the same patterns stay next to each other, the one with
+     * more conditions first, e.g. a mapping for a version header before the
+     * unversioned one. Remaining ties go to the mapping created first, which a
+     * match of a mapping takes over, so comparing never builds strings.
+     */
+    public static final Comparator<RequestMappingInfo> SPECIFICITY_COMPARATOR =
+            Comparator.comparingInt(RequestMappingInfo::getSpecificity)
+                    .thenComparing(info -> info.patternKey)
+                    .thenComparing(Comparator.comparingInt(RequestMappingInfo::getConditionCount).reversed())
+                    .thenComparingLong(info -> info.sequence);
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private static final int MAX_LENGTH = 1023;
+
+    private static final int WILDCARD_WEIGHT = 100;
+
     @Nullable
     private final String name;
 
@@ -32,15 +72,115 @@ public class RequestMappingInfo implements RequestCondition<RequestMappingInfo>
     @Nullable
     private final PatternsRequestCondition patternsCondition;
 
+    private final RequestMethodsRequestCondition methodsCondition;
+
+    private final ParamsRequestCondition paramsCondition;
+
+    private final HeadersRequestCondition headersCondition;
+
+    private final ConsumesRequestCondition consumesCondition;
+
+    private final ProducesRequestCondition producesCondition;
+
+    private final int specificity;
+
+    /**
+     * The patterns joined, which the comparator uses to keep mappings with the
+     * same patterns together.
+     */
+    private final String patternKey;
+
+    /**
+     * The order of creation, which settles ties between otherwise equally
+     * specific mappings.
+     */
+    private final long sequence;
+
+    private final int hashCode;
+
 
     public RequestMappingInfo(@Nullable String name,
                               @Nullable PathPatternsRequestCondition pathPatternsCondition, @Nullable PatternsRequestCondition patternsCondition) {
+        this(name, pathPatternsCondition, patternsCondition, null);
+    }
+
+    public RequestMappingInfo(@Nullable String name,
+                              @Nullable PathPatternsRequestCondition pathPatternsCondition, @Nullable PatternsRequestCondition patternsCondition,
+                              @Nullable RequestMethodsRequestCondition methodsCondition) {
+        this(name, pathPatternsCondition, patternsCondition, methodsCondition, null, null);
+    }
+
+    public RequestMappingInfo(@Nullable String name,
+                              @Nullable PathPatternsRequestCondition pathPatternsCondition, @Nullable PatternsRequestCondition patternsCondition,
+                              @Nullable RequestMethodsRequestCondition methodsCondition,
+                              @Nullable ConsumesRequestCondition consumesCondition,
+                              @Nullable ProducesRequestCondition producesCondition) {
+        this(name, pathPatternsCondition, patternsCondition, methodsCondition, null, null,
+                consumesCondition, producesCondition);
+    }
+
+    public RequestMappingInfo(@Nullable String name,
+                              @Nullable PathPatternsRequestCondition pathPatternsCondition, @Nullable PatternsRequestCondition patternsCondition,
+                              @Nullable RequestMethodsRequestCondition methodsCondition,
+                              @Nullable ParamsRequestCondition paramsCondition,
+                              @Nullable HeadersRequestCondition headersCondition,
+                              @Nullable ConsumesRequestCondition consumesCondition,
+                              @Nullable ProducesRequestCondition producesCondition) {
         Assert.isTrue(pathPatternsCondition != null || patternsCondition != null,
                 "Neither PathPatterns nor String patterns condition");
 
         this.name = StringUtils.hasText(name) ? name : null;
         this.pathPatternsCondition = pathPatternsCondition;
         this.patternsCondition = patternsCondition;
+        this.methodsCondition = null != methodsCondition ? methodsCondition : EMPTY_REQUEST_METHODS;
+        this.paramsCondition = null != paramsCondition ? paramsCondition : EMPTY_PARAMS;
+        this.headersCondition = null != headersCondition ? headersCondition : EMPTY_HEADERS;
+        this.consumesCondition = null != consumesCondition ? consumesCondition : EMPTY_CONSUMES;
+        this.producesCondition = null != producesCondition ? producesCondition : EMPTY_PRODUCES;
+        this.specificity = computeSpecificity(getPatternValues());
+        this.patternKey = String.join(" || ", getPatternValues());
+        this.sequence = SEQUENCE.incrementAndGet();
+        this.hashCode = calculateHashCode(this.pathPatternsCondition, this.patternsCondition, this.methodsCondition,
+                this.paramsCondition, this.headersCondition, this.consumesCondition, this.producesCondition);
+    }
+
+    /**
+     * Copy constructor used for matching conditions. The specificity is that of
+     * the patterns that matched, taken over from the registered mapping unless
+     * only some of its patterns matched.
+     */
+    private RequestMappingInfo(RequestMappingInfo info,
+                               @Nullable PathPatternsRequestCondition pathPatternsCondition, @Nullable PatternsRequestCondition patternsCondition,
+                               RequestMethodsRequestCondition methodsCondition,
+                               ParamsRequestCondition paramsCondition, HeadersRequestCondition headersCondition,
+                               ConsumesRequestCondition consumesCondition, ProducesRequestCondition producesCondition) {
+        this.name = info.name;
+        this.pathPatternsCondition = pathPatternsCondition;
+        this.patternsCondition = patternsCondition;
+        this.methodsCondition = methodsCondition;
+        this.paramsCondition = paramsCondition;
+        this.headersCondition = headersCondition;
+        this.consumesCondition = consumesCondition;
+        this.producesCondition = producesCondition;
+        this.specificity = (getPatternCount() == info.getPatternCount() ?
+                info.specificity : computeSpecificity(getPatternValues()));
+        this.patternKey = info.patternKey;
+        this.sequence = info.sequence;
+        this.hashCode = calculateHashCode(pathPatternsCondition, patternsCondition, methodsCondition,
+                paramsCondition, headersCondition, consumesCondition, producesCondition);
+    }
+
+    private static int calculateHashCode(@Nullable PathPatternsRequestCondition pathPatterns,
+                                         @Nullable PatternsRequestCondition patterns,
+                                         RequestMethodsRequestCondition methods,
+                                         ParamsRequestCondition params, HeadersRequestCondition headers,
+                                         ConsumesRequestCondition consumes, ProducesRequestCondition produces) {
+        int hash = ObjectUtils.nullSafeHashCode(pathPatterns) * 31 + ObjectUtils.nullSafeHashCode(patterns);
+        hash = hash * 31 + methods.hashCode();
+        hash = hash * 31 + params.hashCode();
+        hash = hash * 31 + headers.hashCode();
+        hash = hash * 31 + consumes.hashCode();
+        return hash * 31 + produces.hashCode();
     }
 
     @Nullable
@@ -48,6 +188,103 @@ public class RequestMappingInfo implements RequestCondition<RequestMappingInfo>
         return name;
     }
 
+    /**
+     * Return the patterns of the active patterns condition as Strings.
+     */
+    public Set<String> getPatternValues() {
+        RequestCondition<?> condition = getActivePatternsCondition();
+
+        return condition instanceof PathPatternsRequestCondition ?
+                ((PathPatternsRequestCondition) condition).getPatternValues() :
+                ((PatternsRequestCondition) condition).getPatterns();
+    }
+
+    private int getPatternCount() {
+        return (null != this.pathPatternsCondition ? this.pathPatternsCondition.getPatterns().size() :
+                null != this.patternsCondition ? this.patternsCondition.getPatterns().size() : 0);
+    }
+
+    /**
+     * Return the specificity score of the most specific pattern, computed once
+     * at construction. A lower score is more specific: catch-all patterns come
+     * last, then patterns are ranked by wildcards and captured variables, and
+     * finally longer patterns rank before shorter ones.
+     * <p>
+     * For a mapping returned by {@link #getMatchingCondition}, only the patterns
+     * that matched the request are scored, so a registered mapping never ranks
+     * after a match of it.
+     */
+    public int getSpecificity() {
+        return this.specificity;
+    }
+
+    /**
+     * Return the patterns condition in use when parsed patterns are enabled.
+     */
+    @Nullable
+    public PathPatternsRequestCondition getPathPatternsCondition() {
+        return this.pathPatternsCondition;
+    }
+
+    /**
+     * Return the patterns condition when String pattern matching is in use.
+     */
+    @Nullable
+    public PatternsRequestCondition getPatternsCondition() {
+        return this.patternsCondition;
+    }
+
+    /**
+     * Return the HTTP request methods of this {@link RequestMappingInfo};
+     * or instance with 0 request methods (never {@code null}).
+     */
+    public RequestMethodsRequestCondition getMethodsCondition() {
+        return this.methodsCondition;
+    }
+
+    /**
+     * Return the "parameters" condition of this {@link RequestMappingInfo};
+     * or instance with 0 parameter expressions (never {@code null}).
+     */
+    public ParamsRequestCondition getParamsCondition() {
+        return this.paramsCondition;
+    }
+
+    /**
+     * Return the "headers" condition of this {@link RequestMappingInfo};
+     * or instance with 0 header expressions (never {@code null}).
+     */
+    public HeadersRequestCondition getHeadersCondition() {
+        return this.headersCondition;
+    }
+
+    /**
+     * Return the "consumes" condition of this {@link RequestMappingInfo};
+     * or instance with 0 consumes expressions (never {@code null}).
+     */
+    public ConsumesRequestCondition getConsumesCondition() {
+        return this.consumesCondition;
+    }
+
+    /**
+     * Return the "produces" condition of this {@link RequestMappingInfo};
+     * or instance with 0 produces expressions (never {@code null}).
+     */
+    public ProducesRequestCondition getProducesCondition() {
+        return this.producesCondition;
+    }
+
+    /**
+     * Return the number of conditions besides the patterns, counting each
+     * parameter and header expression, which ranks mappings with the same
+     * patterns.
+     */
+    public int getConditionCount() {
+        return (this.methodsCondition.isEmpty() ? 0 : 1) +
+                this.paramsCondition.getExpressionCount() + this.headersCondition.getExpressionCount() +
+                (this.consumesCondition.isEmpty() ? 0 : 1) + (this.producesCondition.isEmpty() ? 0 : 1);
+    }
+
     public Set<String> getDirectPaths() {
         RequestCondition<?> condition = getActivePatternsCondition();
 
@@ -56,17 +293,69 @@ public class RequestMappingInfo implements RequestCondition<RequestMappingInfo>
                 ((PatternsRequestCondition) condition).getDirectPaths();
     }
 
+    /**
+     * Combine "this" request mapping info (i.e. the current instance) with
+     * another request mapping info instance, e.g. a type-level with a
+     * method-level mapping.
+     */
     @Override
     public RequestMappingInfo combine(RequestMappingInfo other) {
-        return null;
+        String name = combineNames(other);
+
+        PathPatternsRequestCondition pathPatterns =
+                (null != this.pathPatternsCondition && null != other.pathPatternsCondition ?
+                        this.pathPatternsCondition.combine(other.pathPatternsCondition) : null);
+
+        PatternsRequestCondition patterns =
+                (null != this.patternsCondition && null != other.patternsCondition ?
+                        this.patternsCondition.combine(other.patternsCondition) : null);
+
+        RequestMethodsRequestCondition methods = this.methodsCondition.combine(other.methodsCondition);
+        ParamsRequestCondition params = this.paramsCondition.combine(other.paramsCondition);
+        HeadersRequestCondition headers = this.headersCondition.combine(other.headersCondition);
+        ConsumesRequestCondition consumes = this.consumesCondition.combine(other.consumesCondition);
+        ProducesRequestCondition produces = this.producesCondition.combine(other.producesCondition);
+
+        return new RequestMappingInfo(name, pathPatterns, patterns, methods, params, headers, consumes, produces);
+    }
+
+    @Nullable
+    private String combineNames(RequestMappingInfo other) {
+        if (null != this.name && null != other.name) {
+            return this.name + "#" + other.name;
+        } else if (null != this.name) {
+            return this.name;
+        } else {
+            return other.name;
+        }
     }
 
     @Override
+    @Nullable
     public RequestMappingInfo getMatchingCondition(HttpServletRequest request) {
+        return getMatchingCondition(request, null);
+    }
 
+    /**
+     * Variant of {@link #getMatchingCondition(HttpServletRequest)} that takes
+     * the result of matching the path from the given cache when the previous
+     * mapping checked during the same lookup shares the path condition. The
+     * path is matched right after the method, so the params, headers, consumes
+     * and produces conditions are only checked within the group of candidates
+     * whose shared path condition matched.
+     */
+    @Nullable
+    RequestMappingInfo getMatchingCondition(HttpServletRequest request, @Nullable PathMatchCache pathMatchCache) {
+
+        RequestMethodsRequestCondition methods = this.methodsCondition.getMatchingCondition(request);
+        if (null == methods) {
+            return null;
+        }
+
+        // The path next, matched once for all candidates sharing the condition
         PathPatternsRequestCondition pathPatterns = null;
         if (null != this.pathPatternsCondition) {
-            pathPatterns = this.pathPatternsCondition.getMatchingCondition(request);
+            pathPatterns = getMatchingPathCondition(this.pathPatternsCondition, request, pathMatchCache);
             if (null == pathPatterns) {
                 return null;
             }
@@ -74,12 +363,165 @@ public class RequestMappingInfo implements RequestCondition<RequestMappingInfo>
 
         PatternsRequestCondition patterns = null;
         if (null != this.patternsCondition) {
-            patterns = this.patternsCondition.getMatchingCondition(request);
+            patterns = getMatchingPathCondition(this.patternsCondition, request, pathMatchCache);
             if (null == patterns) {
                 return null;
             }
         }
-        return new RequestMappingInfo(this.name, pathPatterns, patterns);
+
+        // Then the compiled params and headers, only for a matching path
+        ParamsRequestCondition params = this.paramsCondition.getMatchingCondition(request);
+        if (null == params) {
+            return null;
+        }
+        HeadersRequestCondition headers = this.headersCondition.getMatchingCondition(request);
+        if (null == headers) {
+            return null;
+        }
+        ConsumesRequestCondition consumes = this.consumesCondition.getMatchingCondition(request);
+        if (null == consumes) {
+            return null;
+        }
+        ProducesRequestCondition produces = this.producesCondition.getMatchingCondition(request);
+        if (null == produces) {
+            return null;
+        }
+        return new RequestMappingInfo(this, pathPatterns, patterns, methods, params, headers, consumes, produces);
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <C extends RequestCondition<C>> C getMatchingPathCondition(
+            C condition, HttpServletRequest request, @Nullable PathMatchCache pathMatchCache) {
+        if (null == pathMatchCache) {
+            return condition.getMatchingCondition(request);
+        }
+        if (pathMatchCache.condition != condition) {
+            pathMatchCache.condition = condition;
+            pathMatchCache.result = condition.getMatchingCondition(request);
+        }
+        return (C) pathMatchCache.result;
+    }
+
+    /**
+     * Return an equal mapping whose path conditions are replaced by the shared
+     * instances the given function returns for them. Mappings sharing their
+     * path conditions are adjacent in a sorted bucket, so with a
+     * {@link PathMatchCache} the path is matched once for all of them.
+     */
+    RequestMappingInfo withSharedPathConditions(UnaryOperator<RequestCondition<?>> sharedCondition) {
+        PathPatternsRequestCondition pathPatterns = (null != this.pathPatternsCondition ?
+                (PathPatternsRequestCondition) sharedCondition.apply(this.pathPatternsCondition) : null);
+        PatternsRequestCondition patterns = (null != this.patternsCondition ?
+                (PatternsRequestCondition) sharedCondition.apply(this.patternsCondition) : null);
+        if (pathPatterns == this.pathPatternsCondition && patterns == this.patternsCondition) {
+            return this;
+        }
+        return new RequestMappingInfo(this, pathPatterns, patterns, this.methodsCondition,
+                this.paramsCondition, this.headersCondition, this.consumesCondition, this.producesCondition);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RequestMappingInfo)) {
+            return false;
+        }
+        RequestMappingInfo otherInfo = (RequestMappingInfo) other;
+        return (ObjectUtils.nullSafeEquals(this.pathPatternsCondition, otherInfo.pathPatternsCondition) &&
+                ObjectUtils.nullSafeEquals(this.patternsCondition, otherInfo.patternsCondition) &&
+                this.methodsCondition.equals(otherInfo.methodsCondition) &&
+                this.paramsCondition.equals(otherInfo.paramsCondition) &&
+                this.headersCondition.equals(otherInfo.headersCondition) &&
+                this.consumesCondition.equals(otherInfo.consumesCondition) &&
+                this.producesCondition.equals(otherInfo.producesCondition));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        if (!this.methodsCondition.isEmpty()) {
+            Set<RequestMethod> httpMethods = this.methodsCondition.getMethods();
+            builder.append(httpMethods.size() == 1 ? httpMethods.iterator().next() : httpMethods).append(" ");
+        }
+        builder.append(this.patternKey);
+        if (!this.paramsCondition.isEmpty()) {
+            builder.append(", params ").append(this.paramsCondition);
+        }
+        if (!this.headersCondition.isEmpty()) {
+            builder.append(", headers ").append(this.headersCondition);
+        }
+        if (!this.consumesCondition.isEmpty()) {
+            builder.append(", consumes ").append(this.consumesCondition);
+        }
+        if (!this.producesCondition.isEmpty()) {
+            builder.append(", produces ").append(this.producesCondition);
+        }
+        return builder.append("}").toString();
+    }
+
+    private static int computeSpecificity(Set<String> patterns) {
+        if (patterns.isEmpty()) {
+            return computeSpecificity("");
+        }
+        int result = Integer.MAX_VALUE;
+        for (String pattern : patterns) {
+            result = Math.min(result, computeSpecificity(pattern));
+        }
+        return result;
+    }
+
+    /**
+     * Score a pattern the same way {@code PathPattern} does, but from its text so
+     * that it also applies to {@code AntPathMatcher} patterns: captured variables
+     * are worth 1, wildcards are worth 100, and variables count as one character
+     * towards the length.
+     */
+    private static int computeSpecificity(String pattern) {
+        boolean catchAll = false;
+        int wildcards = 0;
+        int captures = 0;
+        int length = 0;
+        int depth = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '{') {
+                if (depth == 0) {
+                    captures++;
+                    length++;
+                    if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+                        catchAll = true;
+                    }
+                }
+                depth++;
+            } else if (c == '}' && depth > 0) {
+                depth--;
+            } else if (depth > 0) {
+                continue;
+            } else if (c == '*') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+                    catchAll = true;
+                    i++;
+                } else {
+                    wildcards++;
+                }
+                length++;
+            } else if (c == '?') {
+                wildcards++;
+                length++;
+            } else {
+                length++;
+            }
+        }
+        int score = Math.min(wildcards * WILDCARD_WEIGHT + captures, (1 << 20) - 1);
+        return (catchAll ? 1 << 30 : 0) + (score << 10) + (MAX_LENGTH - Math.min(length, MAX_LENGTH));
     }
 
     public static Builder paths(String... paths) {
@@ -97,6 +539,20 @@ public class RequestMappingInfo implements RequestCondition<RequestMappingInfo>
         }
     }
 
+    /**
+     * Holds the last path condition matched during one handler lookup together
+     * with its result, which may be {@code null} for no match. Not thread-safe,
+     * a new instance is used per lookup.
+     */
+    static final class PathMatchCache {
+
+        @Nullable
+        private RequestCondition<?> condition;
+
+        @Nullable
+        private Object result;
+    }
+
     /**
      * Defines a builder for creating a RequestMappingInfo.
      */
@@ -104,6 +560,31 @@ public class RequestMappingInfo implements RequestCondition<RequestMappingInfo>
 
         Builder paths(String... paths);
 
+        /**
+         * Set the request method conditions.
+         */
+        Builder methods(RequestMethod... methods);
+
+        /**
+         * Set the request param conditions.
+         */
+        Builder params(String... params);
+
+        /**
+         * Set the header conditions.
+         */
+        Builder headers(String... headers);
+
+        /**
+         * Set the consumes conditions.
+         */
+        Builder consumes(String... consumes);
+
+        /**
+         * Set the produces conditions.
+         */
+        Builder produces(String... produces);
+
         Builder mappingName(String name);
 
         Builder customCondition(RequestCondition<?> condition);
@@ -117,6 +598,16 @@ public class RequestMappingInfo implements RequestCondition<RequestMappingInfo>
 
         private String[] paths;
 
+        private RequestMethod[] methods = new RequestMethod[0];
+
+        private String[] params = new String[0];
+
+        private String[] headers = new String[0];
+
+        private String[] consumes = new String[0];
+
+        private String[] produces = new String[0];
+
         @Nullable
         private String mappingName;
 
@@ -135,6 +626,36 @@ public class RequestMappingInfo implements RequestCondition<RequestMappingInfo>
             return this;
         }
 
+        @Override
+        public Builder methods(RequestMethod... methods) {
+            this.methods = methods;
+            return this;
+        }
+
+        @Override
+        public Builder params(String... params) {
+            this.params = params;
+            return this;
+        }
+
+        @Override
+        public Builder headers(String... headers) {
+            this.headers = headers;
+            return this;
+        }
+
+        @Override
+        public Builder consumes(String... consumes) {
+            this.consumes = consumes;
+            return this;
+        }
+
+        @Override
+        public Builder produces(String... produces) {
+            this.produces = produces;
+            return this;
+        }
+
         @Override
         public Builder mappingName(String name) {
             this.mappingName = name;
@@ -168,7 +689,23 @@ public class RequestMappingInfo implements RequestCondition<RequestMappingInfo>
                         new PatternsRequestCondition(this.paths, null, this.options.getPathMatcher(), false, false, null);
             }
 
-            return new RequestMappingInfo(this.mappingName, pathPatterns, patterns);
+            RequestMethodsRequestCondition methods = (ObjectUtils.isEmpty(this.methods) ?
+                    EMPTY_REQUEST_METHODS : new RequestMethodsRequestCondition(this.methods));
+
+            ParamsRequestCondition params = (ObjectUtils.isEmpty(this.params) ?
+                    EMPTY_PARAMS : new ParamsRequestCondition(this.params));
+
+            HeadersRequestCondition headers = (ObjectUtils.isEmpty(this.headers) ?
+                    EMPTY_HEADERS : new HeadersRequestCondition(this.headers));
+
+            ConsumesRequestCondition consumes = (ObjectUtils.isEmpty(this.consumes) ?
+                    EMPTY_CONSUMES : new ConsumesRequestCondition(this.consumes));
+
+            ProducesRequestCondition produces = (ObjectUtils.isEmpty(this.produces) ?
+                    EMPTY_PRODUCES : new ProducesRequestCondition(this.produces, this.options.getContentNegotiationManager()));
+
+            return new RequestMappingInfo(this.mappingName, pathPatterns, patterns, methods, params, headers,
+                    consumes, produces);
         }
     }
 
@@ -185,6 +722,9 @@ public class RequestMappingInfo implements RequestCondition<RequestMappingInfo>
         @Nullable
         private PathMatcher pathMatcher;
 
+        @Nullable
+        private ContentNegotiationManager contentNegotiationManager;
+
 
         public void setPatternParser(@Nullable PathPatternParser patternParser) {
             this.patternParser = patternParser;
@@ -204,5 +744,18 @@ public class RequestMappingInfo implements RequestCondition<RequestMappingInfo>
         public PathMatcher getPathMatcher() {
             return pathMatcher;
         }
+
+        /**
+         * Set the ContentNegotiationManager to use for the ProducesRequestCondition.
+         * <p>By default a manager that checks the 'Accept' header is used.
+         */
+        public void setContentNegotiationManager(@Nullable ContentNegotiationManager contentNegotiationManager) {
+            this.contentNegotiationManager = contentNegotiationManager;
+        }
+
+        @Nullable
+        public ContentNegotiationManager getContentNegotiationManager() {
+            return this.contentNegotiationManager;
+        }
     }
 }
@@ -1,15 +1,117 @@
 package org.springframework.web.servlet.mvc.method;
 
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.handler.AbstractHandlerMethodMapping;
+import org.springframework.web.servlet.mvc.condition.ConsumesRequestCondition;
+import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
 
 import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author zhangdd on 2022/6/18
  */
 public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMethodMapping<RequestMappingInfo> {
 
+    private static final String PATH_MATCH_CACHE_ATTRIBUTE =
+            RequestMappingInfoHandlerMapping.class.getName() + ".pathMatchCache";
+
+    /**
+     * Path conditions of the registered mappings, so that mappings with identical
+     * patterns share one instance, counted so that a condition is dropped with
+     * the last mapping using it.
+     */
+    private final Map<RequestCondition<?>, SharedPathCondition> pathConditions = new ConcurrentHashMap<>();
+
+
+    /**
+     * Register mappings with the path conditions shared, see
+     * {@link RequestMappingInfo#withSharedPathConditions}.
+     */
+    @Override
+    public void registerMapping(RequestMappingInfo mapping, Object handler, Method method) {
+        RequestMappingInfo info = mapping.withSharedPathConditions(this::acquirePathCondition);
+        try {
+            super.registerMapping(info, handler, method);
+        } catch (RuntimeException ex) {
+            releasePathConditions(info);
+            throw ex;
+        }
+    }
+
+    @Override
+    protected void registerHandlerMethod(Object handler, Method method, RequestMappingInfo mapping) {
+        RequestMappingInfo info = mapping.withSharedPathConditions(this::acquirePathCondition);
+        try {
+            super.registerHandlerMethod(handler, method, info);
+        } catch (RuntimeException ex) {
+            releasePathConditions(info);
+            throw ex;
+        }
+    }
+
+    @Override
+    protected void handleMappingRemoved(RequestMappingInfo mapping, HandlerMethod handlerMethod) {
+        releasePathConditions(mapping);
+        super.handleMappingRemoved(mapping, handlerMethod);
+    }
+
+    private RequestCondition<?> acquirePathCondition(RequestCondition<?> condition) {
+        return this.pathConditions.compute(condition, (key, shared) -> {
+            shared = (null != shared ? shared : new SharedPathCondition(key));
+            shared.mappingCount++;
+            return shared;
+        }).condition;
+    }
+
+    private void releasePathConditions(RequestMappingInfo info) {
+        if (null != info.getPathPatternsCondition()) {
+            releasePathCondition(info.getPathPatternsCondition());
+        }
+        if (null != info.getPatternsCondition()) {
+            releasePathCondition(info.getPatternsCondition());
+        }
+    }
+
+    private void releasePathCondition(RequestCondition<?> condition) {
+        this.pathConditions.computeIfPresent(condition, (key, shared) -> --shared.mappingCount > 0 ? shared : null);
+    }
+
+    /**
+     * Get the URL path patterns associated with the supplied {@link RequestMappingInfo}.
+     */
+    @Override
+    protected Set<String> getMappingPathPatterns(RequestMappingInfo info) {
+        return info.getPatternValues();
+    }
+
+    /**
+     * Register a mapping only in the route tables of its request methods.
+     */
+    @Override
+    protected int getMappingMethodMask(RequestMappingInfo info) {
+        return info.getMethodsCondition().getMethodMask();
+    }
+
+    @Override
+    protected Comparator<RequestMappingInfo> getMappingComparator() {
+        return RequestMappingInfo.SPECIFICITY_COMPARATOR;
+    }
 
     @Override
     protected Set<String> getDirectPaths(RequestMappingInfo info) {
@@ -18,6 +120,127 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 
     @Override
     protected RequestMappingInfo getMatchingMapping(RequestMappingInfo info, HttpServletRequest request) {
-        return info.getMatchingCondition(request);
+        return info.getMatchingCondition(request,
+                (RequestMappingInfo.PathMatchCache) request.getAttribute(PATH_MATCH_CACHE_ATTRIBUTE));
+    }
+
+    /**
+     * Match the path once per group of candidates with a shared path condition.
+     * The 'Content-Type' parsed for the consumes conditions is dropped once the
+     * lookup is done, while the 'Accept' media types parsed for the produces
+     * conditions are kept for content negotiation and only dropped before the
+     * lookup of a later dispatch.
+     */
+    @Override
+    @Nullable
+    protected HandlerMethod lookupHandlerMethod(String lookupPath, HttpServletRequest request) throws Exception {
+        request.removeAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        ProducesRequestCondition.clearMediaTypesAttribute(request);
+        request.setAttribute(PATH_MATCH_CACHE_ATTRIBUTE, new RequestMappingInfo.PathMatchCache());
+        try {
+            return super.lookupHandlerMethod(lookupPath, request);
+        } finally {
+            request.removeAttribute(PATH_MATCH_CACHE_ATTRIBUTE);
+            ConsumesRequestCondition.clearContentTypeAttribute(request);
+        }
+    }
+
+    /**
+     * Expose the producible media types of the matching mapping, if it declares
+     * any, so that content negotiation chooses among them only.
+     */
+    @Override
+    protected void handleMatch(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
+        super.handleMatch(info, lookupPath, request);
+        Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
+        if (!mediaTypes.isEmpty()) {
+            request.setAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mediaTypes);
+        }
+    }
+
+    /**
+     * Raise an exception if mappings for the lookup path exist, but none of
+     * them fits the request, so that the client gets the matching status
+     * rather than a 404: {@link HttpRequestMethodNotSupportedException} if they
+     * are only for other HTTP methods, {@link HttpMediaTypeNotSupportedException}
+     * if none of those for the method consumes the 'Content-Type', and
+     * {@link HttpMediaTypeNotAcceptableException} if none of those produces
+     * an acceptable media type.
+     */
+    @Override
+    @Nullable
+    protected HandlerMethod handleNoMatch(Set<RequestMappingInfo> infos, String lookupPath,
+                                          HttpServletRequest request) throws Exception {
+        Set<String> allowedMethods = null;
+        Set<MediaType> consumableMediaTypes = null;
+        Set<MediaType> producibleMediaTypes = null;
+        boolean consumesMatch = false;
+        for (RequestMappingInfo info : infos) {
+            if (!matchesPath(info, request)) {
+                continue;
+            }
+            if (null == info.getMethodsCondition().getMatchingCondition(request)) {
+                allowedMethods = (null != allowedMethods ? allowedMethods : new LinkedHashSet<>());
+                for (RequestMethod method : info.getMethodsCondition().getMethods()) {
+                    allowedMethods.add(method.name());
+                }
+                continue;
+            }
+            consumableMediaTypes = (null != consumableMediaTypes ? consumableMediaTypes : new LinkedHashSet<>());
+            if (null == info.getConsumesCondition().getMatchingCondition(request)) {
+                consumableMediaTypes.addAll(info.getConsumesCondition().getConsumableMediaTypes());
+                continue;
+            }
+            consumesMatch = true;
+            if (null != info.getProducesCondition().getMatchingCondition(request)) {
+                // Not matched for its params or headers
+                return null;
+            }
+            producibleMediaTypes = (null != producibleMediaTypes ? producibleMediaTypes : new LinkedHashSet<>());
+            producibleMediaTypes.addAll(info.getProducesCondition().getProducibleMediaTypes());
+        }
+        if (null == consumableMediaTypes) {
+            if (null != allowedMethods) {
+                throw new HttpRequestMethodNotSupportedException(request.getMethod(), allowedMethods);
+            }
+            return null;
+        }
+        if (!consumesMatch) {
+            throw createMediaTypeNotSupportedException(request, consumableMediaTypes);
+        }
+        throw new HttpMediaTypeNotAcceptableException(new ArrayList<>(producibleMediaTypes));
+    }
+
+    private static HttpMediaTypeNotSupportedException createMediaTypeNotSupportedException(
+            HttpServletRequest request, Set<MediaType> consumableMediaTypes) {
+        try {
+            MediaType contentType = (StringUtils.hasLength(request.getContentType()) ?
+                    MediaType.parseMediaType(request.getContentType()) : MediaType.APPLICATION_OCTET_STREAM);
+            return new HttpMediaTypeNotSupportedException(contentType, new ArrayList<>(consumableMediaTypes));
+        } catch (InvalidMediaTypeException ex) {
+            return new HttpMediaTypeNotSupportedException(ex.getMessage());
+        }
+    }
+
+    private static boolean matchesPath(RequestMappingInfo info, HttpServletRequest request) {
+        return (null != info.getPathPatternsCondition() ?
+                null != info.getPathPatternsCondition().getMatchingCondition(request) :
+                null != info.getPatternsCondition() && null != info.getPatternsCondition().getMatchingCondition(request));
+    }
+
+
+    /**
+     * A path condition shared by mappings, with the number of registered
+     * mappings using it.
+     */
+    private static final class SharedPathCondition {
+
+        private final RequestCondition<?> condition;
+
+        private int mappingCount;
+
+        SharedPathCondition(RequestCondition<?> condition) {
+            this.condition = condition;
+        }
     }
 }
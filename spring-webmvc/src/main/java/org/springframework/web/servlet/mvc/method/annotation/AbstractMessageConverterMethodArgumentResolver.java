@@ -1,12 +1,30 @@
 package org.springframework.web.servlet.mvc.method.annotation;
 
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.context.request.NativeWebRequest;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * A base class for resolving method argument values by reading from the body
+ * of a request with {@link HttpMessageConverter HttpMessageConverters}.
+ *
  * @author zhangdd on 2022/7/9
  */
 public abstract class AbstractMessageConverterMethodArgumentResolver {
@@ -19,4 +37,99 @@ public abstract class AbstractMessageConverterMethodArgumentResolver {
         Assert.notEmpty(converters, "'messageConverters' must not be empty");
         this.messageConverters = converters;
     }
+
+
+    /**
+     * Create the method argument value of the expected parameter type by
+     * reading from the given request.
+     *
+     * @return the created method argument value, or {@code null} if the
+     * request has no body
+     */
+    @Nullable
+    protected Object readWithMessageConverters(NativeWebRequest webRequest, MethodParameter parameter,
+                                               Type paramType)
+            throws IOException, HttpMediaTypeNotSupportedException, HttpMessageNotReadableException {
+        HttpServletRequest servletRequest = webRequest.getNativeRequest(HttpServletRequest.class);
+        Assert.state(servletRequest != null, "No HttpServletRequest");
+        return readWithMessageConverters(new ServletServerHttpRequest(servletRequest), parameter, paramType);
+    }
+
+    /**
+     * Create the method argument value of the expected parameter type by
+     * reading from the given HttpInputMessage.
+     *
+     * @return the created method argument value, or {@code null} if the
+     * message has no body
+     */
+    @Nullable
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected Object readWithMessageConverters(HttpInputMessage inputMessage, MethodParameter parameter,
+                                               Type targetType)
+            throws IOException, HttpMediaTypeNotSupportedException, HttpMessageNotReadableException {
+
+        MediaType contentType = inputMessage.getHeaders().getContentType();
+        if (null == contentType) {
+            contentType = MediaType.APPLICATION_OCTET_STREAM;
+        }
+        Class<?> contextClass = parameter.getContainingClass();
+        Class<?> targetClass = (targetType instanceof Class ? (Class<?>) targetType : parameter.getParameterType());
+
+        for (HttpMessageConverter<?> converter : this.messageConverters) {
+            GenericHttpMessageConverter<?> genericConverter = (converter instanceof GenericHttpMessageConverter ?
+                    (GenericHttpMessageConverter<?>) converter : null);
+            if (null != genericConverter ? genericConverter.canRead(targetType, contextClass, contentType) :
+                    converter.canRead(targetClass, contentType)) {
+                HttpInputMessage message = withBodyCheck(inputMessage);
+                if (null == message) {
+                    return null;
+                }
+                return (null != genericConverter ? genericConverter.read(targetType, contextClass, message) :
+                        ((HttpMessageConverter) converter).read(targetClass, message));
+            }
+        }
+
+        List<MediaType> supportedMediaTypes = new ArrayList<>();
+        for (HttpMessageConverter<?> converter : this.messageConverters) {
+            supportedMediaTypes.addAll(converter.getSupportedMediaTypes(targetClass));
+        }
+        throw new HttpMediaTypeNotSupportedException(contentType, supportedMediaTypes);
+    }
+
+    /**
+     * Return a message that reads the given one, or {@code null} if it has no
+     * body. A known {@code Content-Length} answers this without touching the
+     * stream; otherwise the first byte is read ahead and pushed back.
+     */
+    @Nullable
+    private static HttpInputMessage withBodyCheck(HttpInputMessage inputMessage) throws IOException {
+        long contentLength = inputMessage.getHeaders().getContentLength();
+        if (contentLength == 0) {
+            return null;
+        }
+        if (contentLength > 0) {
+            return inputMessage;
+        }
+        InputStream body = inputMessage.getBody();
+        if (null == body) {
+            return null;
+        }
+        PushbackInputStream pushbackStream = new PushbackInputStream(body);
+        int b = pushbackStream.read();
+        if (b == -1) {
+            return null;
+        }
+        pushbackStream.unread(b);
+        return new HttpInputMessage() {
+            @Override
+            public HttpHeaders getHeaders() {
+                return inputMessage.getHeaders();
+            }
+
+            @Override
+            public InputStream getBody() {
+                return pushbackStream;
+            }
+        };
+    }
 }
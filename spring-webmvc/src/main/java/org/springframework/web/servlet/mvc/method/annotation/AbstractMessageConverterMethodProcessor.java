@@ -17,15 +17,16 @@ import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.accept.HeaderContentNegotiationStrategy;
 import org.springframework.web.context.request.NativeWebRequest;
-import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author zhangdd on 2022/7/3
@@ -37,8 +38,20 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
             Arrays.asList(MediaType.ALL, new MediaType("application"));
 
 
+    /**
+     * Upper bound for the negotiation and converter caches, since the acceptable
+     * media types come from the client. A full cache is cleared rather than
+     * left as it is, so that distinct 'Accept' headers cannot switch caching off.
+     */
+    private static final int NEGOTIATION_CACHE_LIMIT = 256;
+
+
     private final ContentNegotiationManager contentNegotiationManager;
 
+    private final Map<NegotiationKey, MediaType> negotiationCache = new ConcurrentHashMap<>(64);
+
+    private final Map<ConverterKey, HttpMessageConverter<?>> converterCache = new ConcurrentHashMap<>(64);
+
 
     protected AbstractMessageConverterMethodProcessor(List<HttpMessageConverter<?>> converters) {
         this(converters, null, null);
@@ -85,86 +98,141 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
         }
 
         //确定一个最合适的content-type作为selectedMediaType
-        MediaType selectMediaType = null;
+        MediaType selectMediaType;
 
         MediaType contentType = outputMessage.getHeaders().getContentType();
         boolean isContentTypePreset = null != contentType && contentType.isConcrete();
 
         //如果@RequestMapping中的produces配置了content-type，则获取服务器端指定的content-type使用此content-type
         if (isContentTypePreset) {
-            selectMediaType = contentType;
+            selectMediaType = contentType.removeQualityValue();
         } else {
-            //如果没有
-
-            HttpServletRequest request = inputMessage.getServletRequest();
-            List<MediaType> acceptableTypes;
-            try {
-                //获取客户端Accept字段接收的content-type
-                acceptableTypes = getAcceptableMediaTypes(request);
-            } catch (HttpMediaTypeNotAcceptableException e) {
-                throw new RuntimeException(e);
+            selectMediaType = getNegotiatedMediaType(body, valueType, targetType, inputMessage.getServletRequest());
+            if (null == selectMediaType) {
+                return;
             }
+        }
 
-            //获取所有HttpMessageConverter所支持的content-type
-            List<MediaType> producibleTypes = getProducibleMediaTypes(request, valueType, targetType);
-            if (null != body && producibleTypes.isEmpty()) {
-                throw new HttpMessageNotWritableException(
-                        "No converter found for return value of type: " + valueType);
-            }
 
-            //然后通过acceptableTypes 和producibleMediaTypes 比较得到 mediaTypesToUse
-            List<MediaType> mediaTypesToUse = new ArrayList<>();
-            for (MediaType requestedType : acceptableTypes) {
-                for (MediaType producibleType : producibleTypes) {
-                    if (requestedType.isCompatibleWith(producibleType)) {
-                        mediaTypesToUse.add(getMostSpecificMediaType(requestedType, producibleType));
-                    }
-                }
-            }
-            if (mediaTypesToUse.isEmpty()) {
-                if (null != body) {
-                    throw new HttpMediaTypeNotAcceptableException(producibleTypes);
+        //至此有了返回值类型returnValueClass和要写进responseBody的content-type类型，然后就是要找到一个支持这两者的HttpMessageConverter，
+        HttpMessageConverter<?> converter = getWritingConverter(valueType, targetType, selectMediaType);
+        if (null != converter) {
+            if (null != body) {
+                if (converter instanceof GenericHttpMessageConverter) {
+                    ((GenericHttpMessageConverter) converter).write(body, targetType, selectMediaType, outputMessage);
+                } else {
+                    ((HttpMessageConverter) converter).write(body, selectMediaType, outputMessage);
                 }
-                return;
             }
+            return;
+        }
 
-            MediaType.sortBySpecificityAndQuality(mediaTypesToUse);
+        if (null != body) {
+            throw new HttpMessageNotWritableException(
+                    "No converter for [" + valueType + "] with Content-Type '" + selectMediaType + "'");
+        }
+    }
 
-            for (MediaType mediaType : mediaTypesToUse) {
-                if (mediaType.isConcrete()) {
-                    selectMediaType = mediaType;
-                    break;
-                } else if (mediaType.isPresentIn(ALL_APPLICATION_MEDIA_TYPES)) {
-                    selectMediaType = MediaType.APPLICATION_OCTET_STREAM;
-                    break;
-                }
+    /**
+     * Return the first converter that can write the given type with the given
+     * media type, in the order of registration. The choice is cached per value
+     * class, target type and media type, so that only the first response of a
+     * kind has to ask every converter.
+     */
+    @Nullable
+    private HttpMessageConverter<?> getWritingConverter(Class<?> valueType, @Nullable Type targetType,
+                                                        MediaType mediaType) {
+        ConverterKey key = new ConverterKey(valueType, targetType, mediaType);
+        HttpMessageConverter<?> result = this.converterCache.get(key);
+        if (null != result) {
+            return result;
+        }
+        for (HttpMessageConverter<?> converter : this.messageConverters) {
+            if (converter instanceof GenericHttpMessageConverter ?
+                    ((GenericHttpMessageConverter<?>) converter).canWrite(targetType, valueType, mediaType) :
+                    converter.canWrite(valueType, mediaType)) {
+                putInCache(this.converterCache, key, converter);
+                return converter;
             }
         }
+        return null;
+    }
 
 
-        //至此有了返回值类型returnValueClass和要写进responseBody的content-type类型，然后就是要找到一个支持这两者的HttpMessageConverter，
+    /**
+     * Return the media type to write the body with, as negotiated between the
+     * acceptable media types of the request and the producible media types for
+     * the value type. Successful results are cached per value class, target type,
+     * acceptable media types and producible media types attribute, since they
+     * only depend on these.
+     *
+     * @return the selected media type without quality value, or {@code null} if
+     * there is no body and no compatible media type
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private MediaType getNegotiatedMediaType(@Nullable Object body, Class<?> valueType, @Nullable Type targetType,
+                                             HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
+
+        //获取客户端Accept字段接收的content-type
+        List<MediaType> acceptableTypes = getAcceptableMediaTypes(request);
+        Set<MediaType> producibleAttribute =
+                (Set<MediaType>) request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+
+        NegotiationKey key = new NegotiationKey(valueType, targetType, acceptableTypes, producibleAttribute);
+        MediaType selectMediaType = this.negotiationCache.get(key);
         if (null != selectMediaType) {
-            selectMediaType = selectMediaType.removeQualityValue();
-            for (HttpMessageConverter<?> converter : this.messageConverters) {
-                GenericHttpMessageConverter genericConverter = converter instanceof GenericHttpMessageConverter
-                        ? ((GenericHttpMessageConverter<?>) converter) : null;
-                if (null != genericConverter ?
-                        ((GenericHttpMessageConverter<?>) converter).canWrite(targetType, valueType, selectMediaType) :
-                        converter.canWrite(valueType, selectMediaType)) {
-                    if (null != body) {
-
-                        if (null != genericConverter) {
-                            genericConverter.write(body, targetType, selectMediaType, outputMessage);
-                        } else {
-                            ((HttpMessageConverter) converter).write(body, selectMediaType, outputMessage);
-                        }
-                    }
+            return selectMediaType;
+        }
+
+        //获取所有HttpMessageConverter所支持的content-type
+        List<MediaType> producibleTypes = getProducibleMediaTypes(request, valueType, targetType);
+        if (null != body && producibleTypes.isEmpty()) {
+            throw new HttpMessageNotWritableException(
+                    "No converter found for return value of type: " + valueType);
+        }
+
+        //然后通过acceptableTypes 和producibleMediaTypes 比较得到 mediaTypesToUse
+        List<MediaType> mediaTypesToUse = new ArrayList<>();
+        for (MediaType requestedType : acceptableTypes) {
+            for (MediaType producibleType : producibleTypes) {
+                if (requestedType.isCompatibleWith(producibleType)) {
+                    mediaTypesToUse.add(getMostSpecificMediaType(requestedType, producibleType));
                 }
             }
         }
+        if (mediaTypesToUse.isEmpty()) {
+            if (null != body) {
+                throw new HttpMediaTypeNotAcceptableException(producibleTypes);
+            }
+            return null;
+        }
+
+        MediaType.sortBySpecificityAndQuality(mediaTypesToUse);
 
+        for (MediaType mediaType : mediaTypesToUse) {
+            if (mediaType.isConcrete()) {
+                selectMediaType = mediaType;
+                break;
+            } else if (mediaType.isPresentIn(ALL_APPLICATION_MEDIA_TYPES)) {
+                selectMediaType = MediaType.APPLICATION_OCTET_STREAM;
+                break;
+            }
+        }
+        if (null == selectMediaType) {
+            return null;
+        }
+        selectMediaType = selectMediaType.removeQualityValue();
+        putInCache(this.negotiationCache, key, selectMediaType);
+        return selectMediaType;
     }
 
+    private static <K, V> void putInCache(Map<K, V> cache, K key, V value) {
+        if (cache.size() >= NEGOTIATION_CACHE_LIMIT) {
+            cache.clear();
+        }
+        cache.put(key, value);
+    }
 
     /**
      * Return the type of the value to be written to the response. Typically this is
@@ -209,7 +277,7 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
     }
 
     private List<MediaType> getAcceptableMediaTypes(HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
-        return this.contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request));
+        return ProducesRequestCondition.getAcceptedMediaTypes(request, this.contentNegotiationManager);
     }
 
 
@@ -221,4 +289,91 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
         MediaType produceTypeToUse = produceType.copyQualityValue(acceptType);
         return MediaType.SPECIFICITY_COMPARATOR.compare(acceptType, produceTypeToUse) <= 0 ? acceptType : produceTypeToUse;
     }
+
+
+    /**
+     * Cache key for the negotiated media type of a response.
+     */
+    private static final class NegotiationKey {
+
+        private final Class<?> valueType;
+
+        @Nullable
+        private final Type targetType;
+
+        private final List<MediaType> acceptableTypes;
+
+        @Nullable
+        private final Set<MediaType> producibleTypes;
+
+        private final int hashCode;
+
+        NegotiationKey(Class<?> valueType, @Nullable Type targetType,
+                       List<MediaType> acceptableTypes, @Nullable Set<MediaType> producibleTypes) {
+            this.valueType = valueType;
+            this.targetType = targetType;
+            this.acceptableTypes = acceptableTypes;
+            this.producibleTypes = producibleTypes;
+            this.hashCode = Objects.hash(valueType, targetType, acceptableTypes, producibleTypes);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof NegotiationKey)) {
+                return false;
+            }
+            NegotiationKey otherKey = (NegotiationKey) other;
+            return (this.valueType == otherKey.valueType &&
+                    Objects.equals(this.targetType, otherKey.targetType) &&
+                    this.acceptableTypes.equals(otherKey.acceptableTypes) &&
+                    Objects.equals(this.producibleTypes, otherKey.producibleTypes));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+
+    /**
+     * Cache key for the converter that writes a value type with a media type.
+     */
+    private static final class ConverterKey {
+
+        private final Class<?> valueType;
+
+        @Nullable
+        private final Type targetType;
+
+        private final MediaType mediaType;
+
+        ConverterKey(Class<?> valueType, @Nullable Type targetType, MediaType mediaType) {
+            this.valueType = valueType;
+            this.targetType = targetType;
+            this.mediaType = mediaType;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ConverterKey)) {
+                return false;
+            }
+            ConverterKey otherKey = (ConverterKey) other;
+            return (this.valueType == otherKey.valueType &&
+                    Objects.equals(this.targetType, otherKey.targetType) &&
+                    this.mediaType.equals(otherKey.mediaType));
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.valueType, this.targetType, this.mediaType);
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Handles return values of type {@link Callable} by running them on the task
+ * executor of the {@link org.springframework.web.context.request.async.WebAsyncManager}.
+ *
+ * @author zhangdd on 2022/7/23
+ */
+public class CallableMethodReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    @Nullable
+    private AsyncTaskExecutor taskExecutor;
+
+    @Nullable
+    private Long timeout;
+
+
+    /**
+     * Set the executor to run the {@link Callable} tasks on, or {@code null}
+     * for the default one of the {@code WebAsyncManager}.
+     */
+    public void setTaskExecutor(@Nullable AsyncTaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Set the async timeout in milliseconds, or {@code null} for the default
+     * of the servlet container.
+     */
+    public void setTimeout(@Nullable Long timeout) {
+        this.timeout = timeout;
+    }
+
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return Callable.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(@Nullable Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        if (null == returnValue) {
+            return;
+        }
+        Callable<?> callable = (Callable<?>) returnValue;
+        WebAsyncUtils.getAsyncManager(webRequest, this.taskExecutor, this.timeout)
+                .startCallableProcessing(callable, mavContainer);
+    }
+}
@@ -0,0 +1,69 @@
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Handles return values of type {@link DeferredResult} and
+ * {@link CompletionStage}, e.g. a {@code CompletableFuture}, which is adapted
+ * to a DeferredResult.
+ *
+ * @author zhangdd on 2022/7/23
+ */
+public class DeferredResultMethodReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    @Nullable
+    private Long timeout;
+
+
+    /**
+     * Set the async timeout in milliseconds, or {@code null} for the default
+     * of the servlet container. A DeferredResult may override it.
+     */
+    public void setTimeout(@Nullable Long timeout) {
+        this.timeout = timeout;
+    }
+
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        Class<?> type = returnType.getParameterType();
+        return (DeferredResult.class.isAssignableFrom(type) || CompletionStage.class.isAssignableFrom(type));
+    }
+
+    @Override
+    public void handleReturnValue(@Nullable Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        if (null == returnValue) {
+            return;
+        }
+        DeferredResult<?> result = (returnValue instanceof DeferredResult ?
+                (DeferredResult<?>) returnValue : adaptCompletionStage((CompletionStage<?>) returnValue));
+        WebAsyncUtils.getAsyncManager(webRequest, null, this.timeout)
+                .startDeferredResultProcessing(result, mavContainer);
+    }
+
+    private DeferredResult<Object> adaptCompletionStage(CompletionStage<?> future) {
+        DeferredResult<Object> result = new DeferredResult<>();
+        future.handle((value, ex) -> {
+            if (null != ex) {
+                if (ex instanceof CompletionException && null != ex.getCause()) {
+                    ex = ex.getCause();
+                }
+                result.setErrorResult(ex);
+            } else {
+                result.setResult(value);
+            }
+            return null;
+        });
+        return result;
+    }
+}
@@ -1,32 +1,82 @@
 package org.springframework.web.servlet.mvc.method.annotation;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.converter.ByteArrayPool;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.PooledRequestBody;
 import org.springframework.lang.Nullable;
 import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.VirtualThreadUtils;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.HandlerMethodArgumentResolverComposite;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
 import org.springframework.web.method.support.ModelAndViewContainer;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.HandlerMethodUnregisteredEvent;
 import org.springframework.web.servlet.mvc.method.AbstractHandlerMethodAdapter;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author zhangdd on 2022/7/2
  */
 public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
-        implements InitializingBean {
+        implements InitializingBean, ApplicationListener<HandlerMethodUnregisteredEvent> {
+
+    private static final Log logger = LogFactory.getLog(RequestMappingHandlerAdapter.class);
+
+    /**
+     * Marks the async result of a handler method invoked on a virtual thread.
+     */
+    private static final Object HANDLER_INVOCATION = new Object();
+
+    @Nullable
+    private HandlerMethodArgumentResolverComposite argumentResolvers;
 
     @Nullable
     private HandlerMethodReturnValueHandlerComposite returnValueHandlers;
 
     private List<HttpMessageConverter<?>> messageConverters;
 
+    /**
+     * Keyed by the registered handler methods. Entries of handler methods
+     * unregistered at runtime are removed, see {@link HandlerMethodUnregisteredEvent}.
+     */
+    private final Map<HandlerMethod, ServletInvocableHandlerMethod> invocableMethodCache = new ConcurrentHashMap<>(64);
+
+    private AsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("MvcAsync");
+
+    @Nullable
+    private Long asyncRequestTimeout;
+
+    private boolean virtualThreads;
+
+    private boolean nonBlockingResponseWrites;
+
+    private long responseDrainTimeout;
+
+    private boolean nonBlockingRequestReads;
+
+    private int maxBufferedRequestBodySize = 1024 * 1024;
+
+    @Nullable
+    private AsyncTaskExecutor virtualThreadExecutor;
+
 
     public RequestMappingHandlerAdapter() {
         this.messageConverters = new ArrayList<>(4);
@@ -40,6 +90,98 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
         return messageConverters;
     }
 
+    /**
+     * Set the executor to run {@link java.util.concurrent.Callable} return values on.
+     * <p>By default a {@link SimpleAsyncTaskExecutor} with a thread per task
+     * is used, which should be replaced by a bounded thread pool in production.
+     */
+    public void setTaskExecutor(AsyncTaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Set the timeout in milliseconds for async processing, after which the
+     * request is answered with 503. By default the timeout of the servlet
+     * container is used.
+     */
+    public void setAsyncRequestTimeout(long timeout) {
+        this.asyncRequestTimeout = timeout;
+    }
+
+    /**
+     * Set whether to invoke each handler method on a new virtual thread, with
+     * the request in async mode, so that the container thread is released
+     * right away and a blocking handler only holds a virtual thread. The async
+     * request timeout applies to the invocation.
+     * <p>Virtual threads require JDK 21; on older JVMs, or if the servlet does
+     * not support async, handler methods are invoked on the request thread.
+     * <p>By default this is {@code false}.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return this.virtualThreads;
+    }
+
+    /**
+     * Set whether {@code @ResponseBody} return values are serialized into
+     * pooled buffers and written through a Servlet 3.1 {@code WriteListener}
+     * once the handler has completed, so that a slow client does not hold the
+     * request thread while a large body drains. Requires async support.
+     * <p>By default this is {@code false}.
+     *
+     * @see RequestResponseBodyMethodProcessor#setNonBlockingWrites
+     */
+    public void setNonBlockingResponseWrites(boolean nonBlockingResponseWrites) {
+        this.nonBlockingResponseWrites = nonBlockingResponseWrites;
+    }
+
+    public boolean isNonBlockingResponseWrites() {
+        return this.nonBlockingResponseWrites;
+    }
+
+    /**
+     * Set the time in milliseconds a client may take to drain a response body
+     * written in non-blocking mode, after which the response is aborted, or 0
+     * for no limit. The async request timeout does not apply to draining.
+     * <p>By default there is no limit.
+     *
+     * @see RequestResponseBodyMethodProcessor#setDrainTimeout
+     */
+    public void setResponseDrainTimeout(long responseDrainTimeout) {
+        this.responseDrainTimeout = responseDrainTimeout;
+    }
+
+    /**
+     * Set whether request bodies are read through a Servlet 3.1
+     * {@code ReadListener} into pooled buffers before the handler method is
+     * invoked, so that a slow uploader does not hold the request thread. The
+     * handler method is invoked in the async dispatch that follows once the
+     * body is complete. Requires async support.
+     * <p>By default this is {@code false}.
+     *
+     * @see PooledRequestBody
+     */
+    public void setNonBlockingRequestReads(boolean nonBlockingRequestReads) {
+        this.nonBlockingRequestReads = nonBlockingRequestReads;
+    }
+
+    public boolean isNonBlockingRequestReads() {
+        return this.nonBlockingRequestReads;
+    }
+
+    /**
+     * Set the largest request body to read ahead in non-blocking mode. Larger
+     * bodies with a known {@code Content-Length} are read by the handler as
+     * usual, while chunked bodies that turn out larger are rejected with 413.
+     * <p>By default this is 1 MB.
+     */
+    public void setMaxBufferedRequestBodySize(int maxBufferedRequestBodySize) {
+        this.maxBufferedRequestBodySize = maxBufferedRequestBodySize;
+    }
+
     /**
      * Always return true since any method argument and return value
      * type will be processed in some way. A method argument not recoginzed
@@ -63,13 +205,48 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
         ServletWebRequest webRequest = new ServletWebRequest(request, response);
 
-        ServletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
+        ServletInvocableHandlerMethod invocableMethod = getInvocableHandlerMethod(handlerMethod);
 
-        if (this.returnValueHandlers != null) {
-            invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
+        ModelAndViewContainer mavContainer = new ModelAndViewContainer();
+
+        // Only present if async processing was started for this request
+        WebAsyncManager asyncManager = WebAsyncUtils.getExistingAsyncManager(request);
+
+        if (null != asyncManager && asyncManager.hasConcurrentResult()) {
+            // Async dispatch: handle the result of the Callable or DeferredResult
+            Object result = asyncManager.getConcurrentResult();
+            Object[] resultContext = asyncManager.getConcurrentResultContext();
+            if (null != resultContext && resultContext.length > 0) {
+                mavContainer = (ModelAndViewContainer) resultContext[0];
+            }
+            asyncManager.clearConcurrentResult();
+            if (result instanceof AsyncRequestTimeoutException) {
+                if (!response.isCommitted()) {
+                    response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                }
+                return null;
+            }
+            if (null != resultContext && resultContext.length > 1 && resultContext[1] == HANDLER_INVOCATION) {
+                invocableMethod.handleInvocationResult(result, webRequest, mavContainer);
+            } else {
+                invocableMethod.handleConcurrentResult(result, webRequest, mavContainer);
+            }
+            return null;
         }
 
-        ModelAndViewContainer mavContainer = new ModelAndViewContainer();
+        if (this.nonBlockingRequestReads && PooledRequestBody.startReading(
+                request, response, ByteArrayPool.SHARED, this.maxBufferedRequestBodySize)) {
+            // Invoked in the async dispatch once the body has been read
+            return null;
+        }
+
+        if (null != this.virtualThreadExecutor && request.isAsyncSupported()) {
+            ModelAndViewContainer container = mavContainer;
+            WebAsyncUtils.getAsyncManager(webRequest, this.taskExecutor, this.asyncRequestTimeout)
+                    .startCallableProcessing(() -> invocableMethod.invokeForRequest(webRequest, container),
+                            this.virtualThreadExecutor, mavContainer, HANDLER_INVOCATION);
+            return null;
+        }
 
         //对于@ResponseBody的情况，将调用业务方法，同时将方法返回值放到response的body里
         invocableMethod.invokeAndHandle(webRequest, mavContainer);
@@ -80,23 +257,89 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
     }
 
 
+    /**
+     * Return the cached {@link ServletInvocableHandlerMethod} for the registered
+     * handler method that the given one was resolved from, creating it on first
+     * use. Only prototype and scoped beans need a copy per request.
+     */
+    private ServletInvocableHandlerMethod getInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        HandlerMethod key = (null != handlerMethod.getResolvedFromHandlerMethod() ?
+                handlerMethod.getResolvedFromHandlerMethod() : handlerMethod);
+        ServletInvocableHandlerMethod invocableMethod = this.invocableMethodCache.get(key);
+        if (null == invocableMethod) {
+            invocableMethod = createInvocableHandlerMethod(handlerMethod);
+            if (null != this.argumentResolvers) {
+                invocableMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
+            }
+            if (null != this.returnValueHandlers) {
+                invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
+            }
+            ServletInvocableHandlerMethod existing = this.invocableMethodCache.putIfAbsent(key, invocableMethod);
+            if (null != existing) {
+                invocableMethod = existing;
+            }
+        }
+        return invocableMethod.withResolvedBean(handlerMethod.getBean());
+    }
+
+    /**
+     * Drop the cached {@link ServletInvocableHandlerMethod} of a handler method
+     * that has been unregistered.
+     */
+    @Override
+    public void onApplicationEvent(HandlerMethodUnregisteredEvent event) {
+        this.invocableMethodCache.remove(event.getHandlerMethod());
+    }
+
     protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
         return new ServletInvocableHandlerMethod(handlerMethod);
     }
 
     @Override
     public void afterPropertiesSet() throws Exception {
+        if (this.virtualThreads) {
+            if (VirtualThreadUtils.isSupported()) {
+                this.virtualThreadExecutor = new SimpleAsyncTaskExecutor(
+                        VirtualThreadUtils.createThreadFactory("mvc-handler-"));
+            } else {
+                logger.warn("Virtual threads are not supported on Java " + System.getProperty("java.version") +
+                        ", handler methods are invoked on the request thread");
+            }
+        }
+        if (this.argumentResolvers == null) {
+            List<HandlerMethodArgumentResolver> resolvers = getDefaultArgumentResolvers();
+            this.argumentResolvers = new HandlerMethodArgumentResolverComposite().addResolvers(resolvers);
+        }
         if (this.returnValueHandlers == null) {
             List<HandlerMethodReturnValueHandler> handlers = getDefaultReturnValueHandlers();
             this.returnValueHandlers = new HandlerMethodReturnValueHandlerComposite().addHandlers(handlers);
         }
     }
 
+    private List<HandlerMethodArgumentResolver> getDefaultArgumentResolvers() {
+        List<HandlerMethodArgumentResolver> resolvers = new ArrayList<>(20);
+        resolvers.add(new RequestResponseBodyMethodProcessor(getMessageConverters()));
+
+        return resolvers;
+    }
+
     private List<HandlerMethodReturnValueHandler> getDefaultReturnValueHandlers() {
         List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(20);
+        // Before @ResponseBody, which would otherwise write the async values themselves
+        handlers.add(new SseEmitterReturnValueHandler(getMessageConverters()));
+        CallableMethodReturnValueHandler callableHandler = new CallableMethodReturnValueHandler();
+        callableHandler.setTaskExecutor(this.taskExecutor);
+        callableHandler.setTimeout(this.asyncRequestTimeout);
+        handlers.add(callableHandler);
+        DeferredResultMethodReturnValueHandler deferredResultHandler = new DeferredResultMethodReturnValueHandler();
+        deferredResultHandler.setTimeout(this.asyncRequestTimeout);
+        handlers.add(deferredResultHandler);
 //        handlers.add(new RequestResponseBodyMethodProcessor(getMessageConverters(),
 //                this.contentNegotiationManager, this.requestResponseBodyAdvice));
-        handlers.add(new RequestResponseBodyMethodProcessor(getMessageConverters()));
+        RequestResponseBodyMethodProcessor bodyProcessor = new RequestResponseBodyMethodProcessor(getMessageConverters());
+        bodyProcessor.setNonBlockingWrites(this.nonBlockingResponseWrites);
+        bodyProcessor.setDrainTimeout(this.responseDrainTimeout);
+        handlers.add(bodyProcessor);
 
         return handlers;
     }
@@ -91,6 +91,11 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
     protected RequestMappingInfo createRequestMappingInfo(RequestMapping requestMapping, @Nullable RequestCondition<?> customCondition) {
         RequestMappingInfo.Builder builder = RequestMappingInfo
                 .paths(requestMapping.path())
+                .methods(requestMapping.method())
+                .params(requestMapping.params())
+                .headers(requestMapping.headers())
+                .consumes(requestMapping.consumes())
+                .produces(requestMapping.produces())
                 .mappingName(requestMapping.name());
 
         if (null != customCondition) {
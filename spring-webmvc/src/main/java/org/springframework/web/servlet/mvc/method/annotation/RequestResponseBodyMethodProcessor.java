@@ -2,31 +2,134 @@ package org.springframework.web.servlet.mvc.method.annotation;
 
 import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.converter.ByteArrayPool;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.NonBlockingServletServerHttpResponse;
 import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.stream.BaseStream;
 
 /**
+ * Resolves method arguments annotated with {@code @RequestBody} and handles return
+ * values from methods annotated with {@code @ResponseBody} by reading and writing
+ * to the body of the request or response with an {@link HttpMessageConverter}.
+ *
  * @author zhangdd on 2022/7/3
  */
-public class RequestResponseBodyMethodProcessor extends AbstractMessageConverterMethodProcessor {
+public class RequestResponseBodyMethodProcessor extends AbstractMessageConverterMethodProcessor
+        implements HandlerMethodArgumentResolver {
+
+
+    private boolean nonBlockingWrites;
+
+    private int directWriteLimit = 8 * 1024;
+
+    private int bufferLimit = 1024 * 1024;
+
+    private long drainTimeout;
 
 
     protected RequestResponseBodyMethodProcessor(List<HttpMessageConverter<?>> converters) {
         super(converters);
     }
 
+
+    /**
+     * Set whether to buffer the body and write it through a Servlet 3.1
+     * {@code WriteListener} after the handler has completed, so that a slow
+     * client does not hold the request thread.
+     * <p>By default this is {@code false}.
+     *
+     * @see NonBlockingServletServerHttpResponse
+     */
+    public void setNonBlockingWrites(boolean nonBlockingWrites) {
+        this.nonBlockingWrites = nonBlockingWrites;
+    }
+
+    /**
+     * Set the body size up to which a buffered body is written directly,
+     * since it fits into the response buffer of the container.
+     * <p>By default this is 8 KB.
+     */
+    public void setDirectWriteLimit(int directWriteLimit) {
+        this.directWriteLimit = directWriteLimit;
+    }
+
+    /**
+     * Set the body size up to which the body is buffered for a non-blocking
+     * write; larger bodies are streamed with blocking writes.
+     * <p>By default this is 1 MB.
+     */
+    public void setBufferLimit(int bufferLimit) {
+        this.bufferLimit = bufferLimit;
+    }
+
+    /**
+     * Set the time in milliseconds a client may take to drain a body written
+     * through a {@code WriteListener}, or 0 for no limit.
+     * <p>By default there is no limit.
+     *
+     * @see NonBlockingServletServerHttpResponse#setDrainTimeout
+     */
+    public void setDrainTimeout(long drainTimeout) {
+        this.drainTimeout = drainTimeout;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(RequestBody.class);
+    }
+
     @Override
     public boolean supportsReturnType(MethodParameter returnType) {
         return AnnotatedElementUtils.hasAnnotation(returnType.getContainingClass(), ResponseBody.class) ||
                 returnType.hasMethodAnnotation(ResponseBody.class);
     }
 
+    @Override
+    @Nullable
+    public Object resolveArgument(MethodParameter parameter, @Nullable ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+        parameter = parameter.nestedIfOptional();
+        Object arg = readWithMessageConverters(webRequest, parameter, parameter.getNestedGenericParameterType());
+        if (null == arg && isRequired(parameter)) {
+            throw new HttpMessageNotReadableException("Required request body is missing: " +
+                    parameter.getExecutable().toGenericString());
+        }
+        return arg;
+    }
+
+    private boolean isRequired(MethodParameter parameter) {
+        RequestBody requestBody = parameter.getParameterAnnotation(RequestBody.class);
+        return (null != requestBody && requestBody.required() && !parameter.isOptional());
+    }
+
+    @Override
+    protected ServletServerHttpResponse createOutputMessage(NativeWebRequest webRequest) {
+        if (this.nonBlockingWrites) {
+            HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+            HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+            if (null != request && null != response && request.isAsyncSupported() && !request.isAsyncStarted()) {
+                NonBlockingServletServerHttpResponse outputMessage = new NonBlockingServletServerHttpResponse(
+                        request, response, ByteArrayPool.SHARED, this.directWriteLimit, this.bufferLimit);
+                outputMessage.setDrainTimeout(this.drainTimeout);
+                return outputMessage;
+            }
+        }
+        return super.createOutputMessage(webRequest);
+    }
+
     @Override
     public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
 
@@ -34,6 +137,21 @@ public class RequestResponseBodyMethodProcessor extends AbstractMessageConverter
         ServletServerHttpResponse outputMessage = createOutputMessage(webRequest);
 
         //Try even with null return value. ResponseBodyAdvice could get involved.
-        writeWithMessageConverters(returnValue, returnType, inputMessage, outputMessage);
+        boolean bodyWritten = false;
+        try {
+            writeWithMessageConverters(returnValue, returnType, inputMessage, outputMessage);
+            if (outputMessage instanceof NonBlockingServletServerHttpResponse) {
+                ((NonBlockingServletServerHttpResponse) outputMessage).writeBufferedBody();
+            }
+            bodyWritten = true;
+        } finally {
+            if (!bodyWritten && outputMessage instanceof NonBlockingServletServerHttpResponse) {
+                ((NonBlockingServletServerHttpResponse) outputMessage).release();
+            }
+            // A Stream may hold resources such as a cursor, even if it was never written
+            if (returnValue instanceof BaseStream) {
+                ((BaseStream<?, ?>) returnValue).close();
+            }
+        }
     }
 }
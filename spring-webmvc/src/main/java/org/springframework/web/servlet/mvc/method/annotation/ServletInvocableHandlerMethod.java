@@ -1,5 +1,6 @@
 package org.springframework.web.servlet.mvc.method.annotation;
 
+import org.springframework.core.ResolvableType;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.web.context.request.ServletWebRequest;
@@ -8,14 +9,24 @@ import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
 import org.springframework.web.method.support.ModelAndViewContainer;
 import org.springframework.web.servlet.mvc.method.support.InvocableHandlerMethod;
+import org.springframework.web.util.NestedServletException;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.stream.BaseStream;
 
 /**
  * Extends {@link InvocableHandlerMethod} with the ability to handle return
  * values through a registered {@link HandlerMethodReturnValueHandler} and
  * also supports setting the response status based on a method-level
  * {@code @ResponseStatus} annotation.
+ * <p>
+ * Instances hold no per-request state once the return value handlers are set,
+ * so {@link RequestMappingHandlerAdapter} creates one per handler method and
+ * reuses it across requests.
  *
  * @author zhangdd on 2022/7/2
  */
@@ -32,18 +43,141 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
         super(bean, method);
     }
 
+    private ServletInvocableHandlerMethod(ServletInvocableHandlerMethod handlerMethod, Object handler) {
+        super(handlerMethod, handler);
+        this.returnValueHandlers = handlerMethod.returnValueHandlers;
+    }
+
     public void setHandlerMethodReturnValueHandlers(HandlerMethodReturnValueHandlerComposite returnValueHandlers) {
         this.returnValueHandlers = returnValueHandlers;
     }
 
 
+    /**
+     * Return this instance if it already invokes the given handler instance, or
+     * a copy that shares everything but the handler otherwise, e.g. for a
+     * prototype bean that is resolved on every request.
+     */
+    public ServletInvocableHandlerMethod withResolvedBean(Object handler) {
+        return (getBean() == handler ? this : new ServletInvocableHandlerMethod(this, handler));
+    }
+
+    /**
+     * Invoke the method and handle its return value. Arguments read lazily
+     * from the request body, i.e. a {@link BaseStream} or a {@link Closeable}
+     * {@link Iterator}, are closed afterwards even if the handler never closed
+     * them, unless async processing has started and the handler may still be
+     * consuming them.
+     */
     public void invokeAndHandle(ServletWebRequest webRequest, ModelAndViewContainer mavContainer,
                                 Object... provideArgs) throws Exception {
-        //这里会进行业务方法的实际调用
-        Object returnValue = invokeForRequest(webRequest, mavContainer, provideArgs);
+        Object[] args = getMethodArgumentValues(webRequest, mavContainer, provideArgs);
+        try {
+            //这里会进行业务方法的实际调用
+            Object returnValue = doInvoke(args);
+            handleReturnValue(returnValue, webRequest, mavContainer);
+        } finally {
+            if (!webRequest.getRequest().isAsyncStarted()) {
+                closeStreamArguments(args);
+            }
+        }
+    }
+
+    private static void closeStreamArguments(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof BaseStream) {
+                ((BaseStream<?, ?>) arg).close();
+            } else if (arg instanceof Iterator && arg instanceof Closeable) {
+                try {
+                    ((Closeable) arg).close();
+                } catch (IOException ex) {
+                    // ignore
+                }
+            }
+        }
+    }
 
+    /**
+     * Handle the return value of an invocation of this handler method that
+     * ran on another thread, in the async dispatch of the request. A
+     * {@link Throwable} raised by the invocation is raised again instead.
+     */
+    public void handleInvocationResult(@Nullable Object result, ServletWebRequest webRequest,
+                                       ModelAndViewContainer mavContainer) throws Exception {
+        raiseIfFailure(result);
+        handleReturnValue(result, webRequest, mavContainer);
+    }
+
+    private void handleReturnValue(@Nullable Object returnValue, ServletWebRequest webRequest,
+                                   ModelAndViewContainer mavContainer) throws Exception {
         Assert.state(this.returnValueHandlers != null, "No return value handlers");
         this.returnValueHandlers.handleReturnValue(
                 returnValue, getReturnValueType(returnValue), mavContainer, webRequest);
     }
+
+    /**
+     * Handle the result of async processing started by this handler method, in
+     * the async dispatch of the request, as if the method had returned it. The
+     * return type is the one the async type was declared with, e.g. {@code T}
+     * for a {@code Callable<T>}. A {@link Throwable} result is raised instead.
+     */
+    public void handleConcurrentResult(@Nullable Object result, ServletWebRequest webRequest,
+                                       ModelAndViewContainer mavContainer) throws Exception {
+        raiseIfFailure(result);
+        Assert.state(this.returnValueHandlers != null, "No return value handlers");
+        this.returnValueHandlers.handleReturnValue(
+                result, new ConcurrentResultMethodParameter(result), mavContainer, webRequest);
+    }
+
+    private static void raiseIfFailure(@Nullable Object result) throws Exception {
+        if (result instanceof Exception) {
+            throw (Exception) result;
+        } else if (result instanceof Throwable) {
+            throw new NestedServletException("Async processing failed", (Throwable) result);
+        }
+    }
+
+
+    /**
+     * Return type of the handler method for its async result: the generic type
+     * of the declared async type, or the class of the result value.
+     */
+    private class ConcurrentResultMethodParameter extends HandlerMethodParameter {
+
+        @Nullable
+        private final Object returnValue;
+
+        private final ResolvableType returnType;
+
+        ConcurrentResultMethodParameter(@Nullable Object returnValue) {
+            super(-1);
+            this.returnValue = returnValue;
+            this.returnType = ResolvableType.forMethodReturnType(getMethod()).getGeneric();
+        }
+
+        ConcurrentResultMethodParameter(ConcurrentResultMethodParameter original) {
+            super(original);
+            this.returnValue = original.returnValue;
+            this.returnType = original.returnType;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            if (null != this.returnValue) {
+                return this.returnValue.getClass();
+            }
+            Class<?> type = this.returnType.resolve();
+            return (null != type ? type : Object.class);
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return (null != this.returnType.resolve() ? this.returnType.getType() : getParameterType());
+        }
+
+        @Override
+        public ConcurrentResultMethodParameter clone() {
+            return new ConcurrentResultMethodParameter(this);
+        }
+    }
 }
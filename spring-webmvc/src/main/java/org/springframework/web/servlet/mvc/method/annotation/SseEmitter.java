@@ -0,0 +1,317 @@
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Return value of a handler method for a stream of Server-Sent Events. The
+ * handler method returns the emitter and events are sent afterwards from any
+ * thread, until {@link #complete()} is called or the connection ends.
+ * <p>
+ * Events are written without holding a thread per connection, see
+ * {@link SseEmitterReturnValueHandler}. Data objects are serialized with the
+ * configured message converters, so JSON written by the Jackson converter with
+ * {@code INDENT_OUTPUT} enabled is split into {@code data:} lines by its SSE
+ * pretty printer.
+ * <p>
+ * A client that does not keep up is not allowed to buffer events without
+ * limit: once the buffer limit of the connection is reached {@link #send}
+ * fails, and producers that fan out to many clients can check
+ * {@link #isWritable()} to skip a slow client instead.
+ *
+ * @author zhangdd on 2022/7/23
+ */
+public class SseEmitter {
+
+    @Nullable
+    private final Long timeout;
+
+    @Nullable
+    private Handler handler;
+
+    /**
+     * Events sent before the handler was initialized.
+     */
+    private final List<SseEventBuilder> earlySendAttempts = new ArrayList<>(4);
+
+    private boolean complete;
+
+    @Nullable
+    private Throwable failure;
+
+    private volatile boolean connectionClosed;
+
+    private final List<Runnable> timeoutCallbacks = new CopyOnWriteArrayList<>();
+
+    private final List<Runnable> completionCallbacks = new CopyOnWriteArrayList<>();
+
+
+    /**
+     * Create an emitter with the default async timeout of the servlet container.
+     */
+    public SseEmitter() {
+        this.timeout = null;
+    }
+
+    /**
+     * Create an emitter with the given timeout in milliseconds, or 0 for no timeout.
+     */
+    public SseEmitter(Long timeout) {
+        this.timeout = timeout;
+    }
+
+
+    /**
+     * Return the configured timeout in milliseconds, if any.
+     */
+    @Nullable
+    public Long getTimeout() {
+        return this.timeout;
+    }
+
+    /**
+     * Create a builder for an event with fields such as an id or a name.
+     */
+    public static SseEventBuilder event() {
+        return new SseEventBuilder();
+    }
+
+    /**
+     * Send an event with the given data, as text for a {@link CharSequence}
+     * or serialized with a message converter otherwise.
+     *
+     * @throws IOException if the connection is closed or the client does not
+     *                     keep up with the events already sent
+     */
+    public void send(Object data) throws IOException {
+        send(event().data(data));
+    }
+
+    /**
+     * Send the event built by the given builder.
+     *
+     * @throws IOException if the connection is closed or the client does not
+     *                     keep up with the events already sent
+     */
+    public synchronized void send(SseEventBuilder event) throws IOException {
+        Assert.state(!this.complete, "SseEmitter has already completed");
+        if (this.connectionClosed) {
+            throw new IOException("SSE connection has been closed");
+        }
+        if (null != this.handler) {
+            this.handler.send(event);
+        } else {
+            this.earlySendAttempts.add(event);
+        }
+    }
+
+    /**
+     * Whether an event can be sent without exceeding the buffer limit of the
+     * connection, i.e. whether the client keeps up with the events sent so far.
+     */
+    public synchronized boolean isWritable() {
+        return (!this.complete && !this.connectionClosed && (null == this.handler || this.handler.isWritable()));
+    }
+
+    /**
+     * Complete the response once the events sent so far have been written.
+     */
+    public synchronized void complete() {
+        if (this.complete) {
+            return;
+        }
+        this.complete = true;
+        if (null != this.handler) {
+            this.handler.complete();
+        }
+    }
+
+    /**
+     * Complete the response after a failure of the event source. Events
+     * already sent are still written, the failure is logged.
+     */
+    public synchronized void completeWithError(Throwable ex) {
+        if (this.complete) {
+            return;
+        }
+        this.complete = true;
+        this.failure = ex;
+        if (null != this.handler) {
+            this.handler.completeWithError(ex);
+        }
+    }
+
+    /**
+     * Register code to invoke when the async request times out, before the
+     * response is completed.
+     */
+    public void onTimeout(Runnable callback) {
+        this.timeoutCallbacks.add(callback);
+    }
+
+    /**
+     * Register code to invoke when the response is completed, whether normally,
+     * by a timeout or because the client went away. Producers should use it to
+     * stop sending to this emitter.
+     */
+    public void onCompletion(Runnable callback) {
+        this.completionCallbacks.add(callback);
+    }
+
+    /**
+     * Connect the emitter to the response, sending any events sent so far.
+     */
+    synchronized void initialize(Handler handler) throws IOException {
+        this.handler = handler;
+        try {
+            for (SseEventBuilder event : this.earlySendAttempts) {
+                handler.send(event);
+            }
+        } finally {
+            this.earlySendAttempts.clear();
+        }
+        if (null != this.failure) {
+            handler.completeWithError(this.failure);
+        } else if (this.complete) {
+            handler.complete();
+        }
+    }
+
+    /**
+     * Record that the connection has ended, so that further events are
+     * rejected. Does not take the emitter's lock, since it is called by the
+     * container while the connection may be locked.
+     */
+    void connectionClosed() {
+        this.connectionClosed = true;
+    }
+
+    List<Runnable> getTimeoutCallbacks() {
+        return this.timeoutCallbacks;
+    }
+
+    List<Runnable> getCompletionCallbacks() {
+        return this.completionCallbacks;
+    }
+
+    @Override
+    public String toString() {
+        return "SseEmitter@" + Integer.toHexString(hashCode());
+    }
+
+
+    /**
+     * Contract for the connection an emitter writes its events to.
+     */
+    interface Handler {
+
+        void send(SseEventBuilder event) throws IOException;
+
+        boolean isWritable();
+
+        void complete();
+
+        void completeWithError(Throwable failure);
+    }
+
+
+    /**
+     * Builder for a Server-Sent Event. Text fields are collected as they are
+     * added, data objects are kept for serialization when the event is sent.
+     */
+    public static class SseEventBuilder {
+
+        /**
+         * Text fragments, and data objects to serialize between them.
+         */
+        private final List<Object> items = new ArrayList<>(4);
+
+        @Nullable
+        private StringBuilder text;
+
+        SseEventBuilder() {
+        }
+
+        /**
+         * Add a comment line.
+         */
+        public SseEventBuilder comment(String comment) {
+            append(":").append(comment.replace("\n", "\n:")).append("\n");
+            return this;
+        }
+
+        /**
+         * Set the event name.
+         */
+        public SseEventBuilder name(String name) {
+            append("event:").append(name).append("\n");
+            return this;
+        }
+
+        /**
+         * Set the event id.
+         */
+        public SseEventBuilder id(String id) {
+            append("id:").append(id).append("\n");
+            return this;
+        }
+
+        /**
+         * Set the time in milliseconds the client should wait before reconnecting.
+         */
+        public SseEventBuilder reconnectTime(long reconnectTimeMillis) {
+            append("retry:").append(reconnectTimeMillis).append("\n");
+            return this;
+        }
+
+        /**
+         * Add a data field, written as text for a {@link CharSequence} and
+         * serialized with a message converter otherwise.
+         */
+        public SseEventBuilder data(Object data) {
+            Assert.notNull(data, "Data must not be null");
+            append("data:");
+            if (data instanceof CharSequence) {
+                append(data.toString().replace("\n", "\ndata:"));
+            } else {
+                saveAppendedText();
+                this.items.add(data);
+            }
+            append("\n");
+            return this;
+        }
+
+        /**
+         * Return the text fragments of the event, as {@code String}, and the
+         * data objects to serialize between them, in order.
+         */
+        List<Object> build() {
+            if (this.items.isEmpty() && null == this.text) {
+                return Collections.emptyList();
+            }
+            append("\n");
+            saveAppendedText();
+            return this.items;
+        }
+
+        private StringBuilder append(String text) {
+            if (null == this.text) {
+                this.text = new StringBuilder();
+            }
+            return this.text.append(text);
+        }
+
+        private void saveAppendedText() {
+            if (null != this.text) {
+                this.items.add(this.text.toString());
+                this.text = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handles return values of type {@link SseEmitter}: the request is put into
+ * async mode and events are written as they are sent, through a Servlet 3.1
+ * {@link WriteListener}, so no thread is held per open connection.
+ * <p>
+ * Events sent within the {@link #setCoalesceWindow coalesce window} are
+ * collected and written and flushed together by a shared scheduler thread,
+ * which only ever writes when the output stream is ready and so never blocks.
+ * Events that a slow client has not taken yet are buffered up to the
+ * {@link #setBufferLimit buffer limit}, beyond which sending fails.
+ *
+ * @author zhangdd on 2022/7/23
+ */
+public class SseEmitterReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    private static final Log logger = LogFactory.getLog(SseEmitterReturnValueHandler.class);
+
+    /**
+     * The media types to select a converter for event data with, in order.
+     */
+    private static final MediaType[] DATA_MEDIA_TYPES = {MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON};
+
+    private final List<HttpMessageConverter<?>> messageConverters;
+
+    private long coalesceWindow = 10;
+
+    private int bufferLimit = 256 * 1024;
+
+    @Nullable
+    private volatile ScheduledExecutorService scheduler;
+
+
+    public SseEmitterReturnValueHandler(List<HttpMessageConverter<?>> messageConverters) {
+        this.messageConverters = messageConverters;
+    }
+
+
+    /**
+     * Set the time in milliseconds to collect events before they are written
+     * and flushed, or 0 to write every event from the sending thread right away.
+     * <p>By default this is 10 ms.
+     */
+    public void setCoalesceWindow(long coalesceWindow) {
+        Assert.isTrue(coalesceWindow >= 0, "coalesceWindow must not be negative");
+        this.coalesceWindow = coalesceWindow;
+    }
+
+    public long getCoalesceWindow() {
+        return this.coalesceWindow;
+    }
+
+    /**
+     * Set the number of bytes of events to buffer per connection while the
+     * client is not ready to take them.
+     * <p>By default this is 256 KB.
+     */
+    public void setBufferLimit(int bufferLimit) {
+        Assert.isTrue(bufferLimit > 0, "bufferLimit must be greater than 0");
+        this.bufferLimit = bufferLimit;
+    }
+
+    public int getBufferLimit() {
+        return this.bufferLimit;
+    }
+
+    /**
+     * Set the scheduler to write coalesced events on. By default a single
+     * daemon thread is created on first use and shared by all connections.
+     */
+    public void setScheduler(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return SseEmitter.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(@Nullable Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        if (null == returnValue) {
+            return;
+        }
+        SseEmitter emitter = (SseEmitter) returnValue;
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+        Assert.state(null != request && null != response, "No HttpServletRequest or HttpServletResponse");
+
+        response.setContentType(MediaType.TEXT_EVENT_STREAM.toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        if (null != emitter.getTimeout()) {
+            asyncContext.setTimeout(emitter.getTimeout());
+        }
+        ServletOutputStream outputStream = response.getOutputStream();
+        SseConnection connection = new SseConnection(emitter, asyncContext, outputStream);
+        asyncContext.addListener(connection);
+        outputStream.setWriteListener(connection);
+        emitter.initialize(connection);
+    }
+
+    private ScheduledExecutorService getScheduler() {
+        ScheduledExecutorService scheduler = this.scheduler;
+        if (null == scheduler) {
+            synchronized (this) {
+                scheduler = this.scheduler;
+                if (null == scheduler) {
+                    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "sse-emitter-writer");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    this.scheduler = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * Serialize the given event, data objects with the first message converter
+     * that can write them as {@code text/event-stream}, or else as JSON. The
+     * media type is part of the selection so that a converter such as the
+     * NDJSON one, which ends a value with a newline and so would end the event
+     * early, is never picked.
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] serialize(SseEmitter.SseEventBuilder event) throws IOException {
+        EventOutputMessage message = new EventOutputMessage();
+        for (Object item : event.build()) {
+            if (item instanceof String) {
+                message.body.write(((String) item).getBytes(StandardCharsets.UTF_8));
+                continue;
+            }
+            HttpMessageConverter<Object> writer = null;
+            MediaType writeType = null;
+            for (MediaType mediaType : DATA_MEDIA_TYPES) {
+                for (HttpMessageConverter<?> converter : this.messageConverters) {
+                    if (converter.canWrite(item.getClass(), mediaType)) {
+                        writer = (HttpMessageConverter<Object>) converter;
+                        writeType = mediaType;
+                        break;
+                    }
+                }
+                if (null != writer) {
+                    break;
+                }
+            }
+            if (null == writer) {
+                throw new HttpMessageNotWritableException(
+                        "No converter for [" + item.getClass().getName() + "] in SSE event data");
+            }
+            writer.write(item, writeType, message);
+        }
+        return message.body.toByteArray();
+    }
+
+
+    /**
+     * Output message for the data of an event, with the {@code text/event-stream}
+     * content type, so that the Jackson converter applies its SSE pretty printer
+     * whichever media type it was selected with.
+     */
+    private static final class EventOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+        EventOutputMessage() {
+            this.headers.setContentType(MediaType.TEXT_EVENT_STREAM);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.headers;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return this.body;
+        }
+    }
+
+
+    /**
+     * The connection of one emitter. Sent events are appended to a pending
+     * buffer, which is written when the coalesce window ends or, if the output
+     * stream was not ready then, when the container reports it writable again.
+     * All writes happen under the connection's lock, so never concurrently.
+     */
+    private final class SseConnection implements SseEmitter.Handler, WriteListener, AsyncListener {
+
+        private final SseEmitter emitter;
+
+        private final AsyncContext asyncContext;
+
+        private final ServletOutputStream outputStream;
+
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream(1024);
+
+        private boolean drainScheduled;
+
+        private boolean completionRequested;
+
+        private boolean closed;
+
+        SseConnection(SseEmitter emitter, AsyncContext asyncContext, ServletOutputStream outputStream) {
+            this.emitter = emitter;
+            this.asyncContext = asyncContext;
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void send(SseEmitter.SseEventBuilder event) throws IOException {
+            byte[] bytes = serialize(event);
+            synchronized (this) {
+                if (this.closed) {
+                    throw new IOException("SSE connection has been closed");
+                }
+                if (this.pending.size() + bytes.length > bufferLimit) {
+                    throw new IOException("SSE client is not keeping up: " + this.pending.size() +
+                            " bytes of events pending, buffer limit is " + bufferLimit);
+                }
+                this.pending.write(bytes);
+                scheduleDrain();
+            }
+        }
+
+        @Override
+        public synchronized boolean isWritable() {
+            return (!this.closed && this.pending.size() < bufferLimit);
+        }
+
+        @Override
+        public synchronized void complete() {
+            this.completionRequested = true;
+            scheduleDrain();
+        }
+
+        @Override
+        public void completeWithError(Throwable failure) {
+            logger.error("SSE event source failed, completing response", failure);
+            complete();
+        }
+
+        /**
+         * Write the pending events after the coalesce window, unless that is
+         * already scheduled. Must be called under the lock.
+         */
+        private void scheduleDrain() {
+            if (this.drainScheduled || this.closed) {
+                return;
+            }
+            if (coalesceWindow == 0) {
+                drainSafely();
+                return;
+            }
+            this.drainScheduled = true;
+            getScheduler().schedule(this::drainSafely, coalesceWindow, TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void drainSafely() {
+            this.drainScheduled = false;
+            try {
+                drain();
+            } catch (Throwable ex) {
+                fail(ex);
+            }
+        }
+
+        /**
+         * Write and flush the pending events as far as the output stream is
+         * ready, and complete the response once all has been written.
+         */
+        private void drain() throws IOException {
+            if (this.closed) {
+                return;
+            }
+            if (this.pending.size() > 0) {
+                if (!this.outputStream.isReady()) {
+                    // onWritePossible follows
+                    return;
+                }
+                this.pending.writeTo(this.outputStream);
+                this.pending.reset();
+            }
+            if (!this.outputStream.isReady()) {
+                return;
+            }
+            this.outputStream.flush();
+            if (this.completionRequested && this.outputStream.isReady()) {
+                this.closed = true;
+                this.asyncContext.complete();
+            }
+        }
+
+        private synchronized void fail(Throwable ex) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Failed to write SSE events for " + this.emitter + ": " + ex);
+            }
+            if (!this.closed) {
+                this.closed = true;
+                this.pending.reset();
+                this.asyncContext.complete();
+            }
+        }
+
+        private void closed() {
+            synchronized (this) {
+                this.closed = true;
+                this.pending.reset();
+            }
+            this.emitter.connectionClosed();
+        }
+
+        @Override
+        public synchronized void onWritePossible() throws IOException {
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable ex) {
+            fail(ex);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            closed();
+            for (Runnable callback : this.emitter.getCompletionCallbacks()) {
+                callback.run();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            for (Runnable callback : this.emitter.getTimeoutCallbacks()) {
+                callback.run();
+            }
+            closed();
+            this.asyncContext.complete();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            fail(event.getThrowable());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package org.springframework.web.servlet.mvc.method.support;
 
+import org.springframework.core.MethodParameter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.HandlerMethodArgumentResolverComposite;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /**
@@ -18,6 +21,8 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
     private static final Object[] EMPTY_ARGS = new Object[0];
 
+    private HandlerMethodArgumentResolverComposite resolvers = new HandlerMethodArgumentResolverComposite();
+
     public InvocableHandlerMethod(HandlerMethod handlerMethod) {
         super(handlerMethod);
     }
@@ -26,6 +31,23 @@ public class InvocableHandlerMethod extends HandlerMethod {
         super(bean, method);
     }
 
+    /**
+     * Create a copy of the given instance that invokes the method on the given
+     * handler instance.
+     */
+    protected InvocableHandlerMethod(InvocableHandlerMethod handlerMethod, Object handler) {
+        super(handlerMethod, handler);
+        this.resolvers = handlerMethod.resolvers;
+    }
+
+    /**
+     * Set {@link HandlerMethodArgumentResolver HandlerMethodArgumentResolvers}
+     * to use for resolving method argument values.
+     */
+    public void setHandlerMethodArgumentResolvers(HandlerMethodArgumentResolverComposite argumentResolvers) {
+        this.resolvers = argumentResolvers;
+    }
+
     /**
      * Invoke the method after resolving its argument values in the context of the
      * given request.
@@ -40,18 +62,52 @@ public class InvocableHandlerMethod extends HandlerMethod {
         return doInvoke(args);
     }
 
+    /**
+     * Get the method argument values for the current request, checking the
+     * provided argument values and falling back to the configured argument
+     * resolvers.
+     */
     protected Object[] getMethodArgumentValues(NativeWebRequest request, @Nullable ModelAndViewContainer mavContainer,
                                                Object... provideArgs) throws Exception {
-        return EMPTY_ARGS;
+        MethodParameter[] parameters = getMethodParameters();
+        if (ObjectUtils.isEmpty(parameters)) {
+            return EMPTY_ARGS;
+        }
+        Object[] args = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            MethodParameter parameter = parameters[i];
+            args[i] = findProvidedArgument(parameter, provideArgs);
+            if (null != args[i]) {
+                continue;
+            }
+            if (!this.resolvers.supportsParameter(parameter)) {
+                throw new IllegalStateException("Could not resolve parameter [" + i + "] in " +
+                        parameter.getExecutable().toGenericString() + ": No suitable resolver");
+            }
+            args[i] = this.resolvers.resolveArgument(parameter, mavContainer, request);
+        }
+        return args;
     }
 
     @Nullable
-    protected Object doInvoke(Object... args) {
-        Method method = getBridgedMethod();
-        try {
-            return method.invoke(getBean(), args);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
+    private static Object findProvidedArgument(MethodParameter parameter, @Nullable Object... providedArgs) {
+        if (!ObjectUtils.isEmpty(providedArgs)) {
+            for (Object providedArg : providedArgs) {
+                if (parameter.getParameterType().isInstance(providedArg)) {
+                    return providedArg;
+                }
+            }
         }
+        return null;
+    }
+
+    /**
+     * Invoke the handler method with the given argument values through the
+     * {@link HandlerMethod#getInvoker() invoker} bound at registration.
+     * Exceptions thrown by the handler method are propagated as they are.
+     */
+    @Nullable
+    protected Object doInvoke(Object... args) throws Exception {
+        return getInvoker().invoke(getBean(), args);
     }
 }